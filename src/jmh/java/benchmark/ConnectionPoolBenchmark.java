@@ -0,0 +1,75 @@
+package benchmark;
+
+import model.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import storage.AccountStorage;
+import storage.CachedAccountStorage;
+import utils.UuidCodec;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+    private static final String LOAD_BY_USER_ID =
+            "SELECT id, userId, accountNumber, balance, version FROM accounts WHERE userId = ?";
+
+    @State(Scope.Benchmark)
+    public static class Storages {
+        AccountStorage accountStorage;
+        CachedAccountStorage cachedAccountStorage;
+        String url;
+
+        @Setup(Level.Trial)
+        public void setUp(DatasetState state) {
+            accountStorage = new AccountStorage(state.dataset.database());
+            cachedAccountStorage = new CachedAccountStorage(state.dataset.database());
+            url = "jdbc:sqlite:" + state.dataset.file().toAbsolutePath();
+        }
+    }
+
+    @Benchmark
+    public Account unpooledLoadByUserId(DatasetState state, Storages storages) throws SQLException {
+        try (var connection = DriverManager.getConnection(storages.url);
+             var pstmt = connection.prepareStatement(LOAD_BY_USER_ID)) {
+            pstmt.setBytes(1, UuidCodec.toBytes(state.dataset.user().id()));
+            try (var rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Account(
+                            UuidCodec.fromBytes(rs.getBytes("id")),
+                            UuidCodec.fromBytes(rs.getBytes("userId")),
+                            rs.getLong("accountNumber"),
+                            rs.getLong("balance"),
+                            rs.getLong("version")
+                    );
+                }
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Account pooledLoadByUserId(DatasetState state, Storages storages) {
+        return storages.accountStorage.loadByUserId(state.dataset.user().id());
+    }
+
+    @Benchmark
+    public Account cachedLoadByUserId(DatasetState state, Storages storages) {
+        return storages.cachedAccountStorage.loadByUserId(state.dataset.user().id());
+    }
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+import model.OperationEntry;
+import model.OperationType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import service.WalletError;
+import storage.OperationFilter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentionBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long completed;
+        public long conflicts;
+        public long failures;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            completed = 0;
+            conflicts = 0;
+            failures = 0;
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void addOperationSameAccount(DatasetState state, Outcomes outcomes) {
+        var result = state.walletService.addOperation(state.dataset.user().id(), OperationType.INCOME, null, 1, null);
+        if (result.isSuccess()) {
+            outcomes.completed++;
+        } else if (result.error() == WalletError.CONFLICT) {
+            outcomes.conflicts++;
+        } else {
+            outcomes.failures++;
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void transferSameAccounts(DatasetState state, Outcomes outcomes) {
+        var result = state.walletService.transfer(state.dataset.user().id(), state.dataset.recipientAccount().getAccountNumber(), 1);
+        if (result.isSuccess()) {
+            outcomes.completed++;
+        } else {
+            outcomes.failures++;
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public void mixedWriter(DatasetState state, Outcomes outcomes) {
+        addOperationSameAccount(state, outcomes);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public List<OperationEntry> mixedReader(DatasetState state) {
+        return state.walletService.loadOperationPage(state.dataset.user().id(), OperationFilter.all(), null, PAGE_SIZE);
+    }
+}
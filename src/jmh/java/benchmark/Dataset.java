@@ -0,0 +1,21 @@
+package benchmark;
+
+import model.Account;
+import model.Category;
+import model.User;
+import utils.DatabaseConnection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public record Dataset(Path file, DatabaseConnection database, User user, Account account, User recipient,
+                      Account recipientAccount, List<Category> categories, int operations) {
+    public void delete() throws IOException {
+        database.close();
+        for (var suffix : List.of("", "-wal", "-shm", "-journal")) {
+            Files.deleteIfExists(Path.of(file + suffix));
+        }
+    }
+}
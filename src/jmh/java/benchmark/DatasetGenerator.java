@@ -0,0 +1,123 @@
+package benchmark;
+
+import model.Account;
+import model.Category;
+import model.Operation;
+import model.OperationType;
+import model.User;
+import storage.AccountStorage;
+import storage.CategoryStorage;
+import storage.OperationStorage;
+import storage.SchemaMigrator;
+import storage.UserStorage;
+import utils.DatabaseConnection;
+import utils.DateFormatter;
+import utils.MoneyFormatter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+public final class DatasetGenerator {
+    public static final long SEED = 20_240_101L;
+    public static final int CATEGORY_COUNT = 20;
+    private static final int BATCH_SIZE = 5_000;
+    private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+    private static final Duration SPAN = Duration.ofDays(5 * 365);
+    private static final long INITIAL_DEPOSIT = 1_000_000_000_00L;
+    private static final String[] NOTE_WORDS = {"кафе", "такси", "аренда", "продукты", "зарплата", "подарок", "кино", "аптека"};
+
+    private DatasetGenerator() {
+    }
+
+    public static Dataset generate(int operations) throws IOException, SQLException {
+        var file = Files.createTempFile("wallet-bench-", ".db");
+        var database = DatabaseConnection.getInstance("jdbc:sqlite:" + file.toAbsolutePath());
+        new SchemaMigrator(database).migrate();
+
+        var random = new SplittableRandom(SEED);
+        var userStorage = new UserStorage(database);
+        var accountStorage = new AccountStorage(database);
+        var categoryStorage = new CategoryStorage(database);
+        var operationStorage = new OperationStorage(database);
+
+        var user = new User(uuid(random), "bench-user", "secret");
+        var recipient = new User(uuid(random), "bench-recipient", "secret");
+        userStorage.save(user);
+        userStorage.save(recipient);
+        var account = new Account(uuid(random), user.id(), 4_000_000_000L, 0);
+        var recipientAccount = new Account(uuid(random), recipient.id(), 4_000_000_001L, 0);
+        accountStorage.save(account);
+        accountStorage.save(recipientAccount);
+
+        var categories = new ArrayList<Category>(CATEGORY_COUNT);
+        for (var i = 0; i < CATEGORY_COUNT; i++) {
+            var category = new Category(uuid(random), user.id(), "Категория " + i, Long.MAX_VALUE);
+            categoryStorage.save(category);
+            categories.add(category);
+        }
+
+        var step = SPAN.toMillis() / Math.max(1, operations);
+        var batch = new ArrayList<Operation>(BATCH_SIZE);
+        batch.add(new Operation(uuid(random), account.getId(), null, OperationType.INCOME, INITIAL_DEPOSIT, START, null));
+        for (var i = 1; i < operations; i++) {
+            batch.add(nextOperation(random, account.getId(), categories, START.plusMillis(i * step + random.nextLong(step + 1))));
+            if (batch.size() == BATCH_SIZE) {
+                insert(database, operationStorage, batch);
+            }
+        }
+        insert(database, operationStorage, batch);
+        database.inTransaction(connection -> {
+            accountStorage.recomputeBalance(connection, account.getId());
+            accountStorage.deposit(connection, recipientAccount.getId(), INITIAL_DEPOSIT);
+            return null;
+        });
+
+        return new Dataset(file, database, user, accountStorage.load(account.getId()), recipient,
+                accountStorage.load(recipientAccount.getId()), List.copyOf(categories), operations);
+    }
+
+    public static List<String> csvLines(int rows, List<Category> categories) {
+        var random = new SplittableRandom(SEED + rows);
+        var lines = new ArrayList<String>(rows + 1);
+        lines.add("date,type,category,amount,note");
+        for (var i = 0; i < rows; i++) {
+            var date = START.plusMillis(random.nextLong(SPAN.toMillis()));
+            var type = random.nextInt(4) == 0 ? OperationType.INCOME : OperationType.EXPENSE;
+            var amount = 1 + random.nextLong(10_000_00L);
+            var category = categories.get(random.nextInt(categories.size())).getName();
+            lines.add(DateFormatter.format(date) + "," + type.name() + "," + category + ","
+                    + MoneyFormatter.format(amount) + "," + NOTE_WORDS[random.nextInt(NOTE_WORDS.length)]);
+        }
+        return lines;
+    }
+
+    static UUID uuid(SplittableRandom random) {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    private static Operation nextOperation(SplittableRandom random, UUID accountId, List<Category> categories, Instant date) {
+        var type = random.nextInt(4) == 0 ? OperationType.INCOME : OperationType.EXPENSE;
+        var amount = 1 + random.nextLong(type == OperationType.INCOME ? 100_000_00L : 10_000_00L);
+        var categoryId = random.nextInt(5) == 0 ? null : categories.get(random.nextInt(categories.size())).getId();
+        var note = random.nextInt(10) == 0 ? NOTE_WORDS[random.nextInt(NOTE_WORDS.length)] + " " + NOTE_WORDS[random.nextInt(NOTE_WORDS.length)] : null;
+        return new Operation(uuid(random), accountId, categoryId, type, amount, date, note);
+    }
+
+    private static void insert(DatabaseConnection database, OperationStorage operationStorage, List<Operation> batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        database.inTransaction(connection -> {
+            operationStorage.saveBatch(connection, batch);
+            return null;
+        });
+        batch.clear();
+    }
+}
@@ -0,0 +1,38 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import service.WalletService;
+import storage.ShardRouter;
+import storage.UserStorage;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+@State(Scope.Benchmark)
+public class DatasetState {
+    @Param({"1000", "100000", "1000000"})
+    public int operations;
+
+    public Dataset dataset;
+    public WalletService walletService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        configure();
+        dataset = DatasetGenerator.generate(operations);
+        walletService = new WalletService(ShardRouter.of(dataset.database()), new UserStorage(dataset.database()));
+    }
+
+    protected void configure() {
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dataset.delete();
+    }
+}
@@ -0,0 +1,136 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.UuidCodec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdEncodingBenchmark {
+    private static final String SCAN = "SELECT id, accountId, categoryId, type, amount FROM operations WHERE accountId = ?";
+
+    @State(Scope.Benchmark)
+    public static class Databases {
+        Path textFile;
+        Path blobFile;
+        Connection text;
+        Connection blob;
+        long textBytes;
+        long blobBytes;
+
+        @Setup(Level.Trial)
+        public void setUp(DatasetState state) throws IOException, SQLException {
+            var source = state.dataset.file().toAbsolutePath();
+            textFile = Files.createTempFile("wallet-bench-text-", ".db");
+            blobFile = Files.createTempFile("wallet-bench-blob-", ".db");
+            textBytes = copy(source, textFile, "TEXT", textId("id"), textId("accountId"), textId("categoryId"),
+                    "CASE type WHEN 0 THEN 'Доход' ELSE 'Расход' END");
+            blobBytes = copy(source, blobFile, "BLOB", "id", "accountId", "categoryId", "type");
+            text = DriverManager.getConnection("jdbc:sqlite:" + textFile);
+            blob = DriverManager.getConnection("jdbc:sqlite:" + blobFile);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException, SQLException {
+            text.close();
+            blob.close();
+            for (var file : List.of(textFile, blobFile)) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        private static long copy(Path source, Path target, String idType, String id, String accountId,
+                                 String categoryId, String type) throws IOException, SQLException {
+            try (var connection = DriverManager.getConnection("jdbc:sqlite:" + target);
+                 var stmt = connection.createStatement()) {
+                stmt.executeUpdate("ATTACH DATABASE '" + source + "' AS source");
+                stmt.executeUpdate("CREATE TABLE operations (id " + idType + " PRIMARY KEY, accountId " + idType +
+                        ", categoryId " + idType + ", type " + ("type".equals(type) ? "INTEGER" : "TEXT") +
+                        ", amount INTEGER NOT NULL, date INTEGER NOT NULL)");
+                stmt.executeUpdate("INSERT INTO operations SELECT " + id + ", " + accountId + ", " + categoryId + ", " +
+                        type + ", amount, date FROM source.operations");
+                stmt.executeUpdate("CREATE INDEX idx_operations_accountId_date ON operations (accountId, date, id)");
+                stmt.executeUpdate("DETACH DATABASE source");
+                stmt.executeUpdate("VACUUM");
+            }
+            return Files.size(target);
+        }
+
+        private static String textId(String column) {
+            return "CASE WHEN " + column + " IS NULL THEN NULL ELSE " +
+                    "lower(substr(hex(" + column + "), 1, 8) || '-' || substr(hex(" + column + "), 9, 4) || '-' || " +
+                    "substr(hex(" + column + "), 13, 4) || '-' || substr(hex(" + column + "), 17, 4) || '-' || " +
+                    "substr(hex(" + column + "), 21)) END";
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long databaseBytes;
+    }
+
+    @Benchmark
+    public long scanTextIds(DatasetState state, Databases databases, Footprint footprint) throws SQLException {
+        footprint.databaseBytes = databases.textBytes;
+        try (var pstmt = databases.text.prepareStatement(SCAN)) {
+            pstmt.setString(1, state.dataset.account().getId().toString());
+            var checksum = 0L;
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    checksum += UUID.fromString(rs.getString("id")).getLeastSignificantBits();
+                    var categoryId = rs.getString("categoryId");
+                    if (categoryId != null) {
+                        checksum += UUID.fromString(categoryId).getLeastSignificantBits();
+                    }
+                    checksum += rs.getString("type").length() + rs.getLong("amount");
+                }
+            }
+            return checksum;
+        }
+    }
+
+    @Benchmark
+    public long scanBlobIds(DatasetState state, Databases databases, Footprint footprint) throws SQLException {
+        footprint.databaseBytes = databases.blobBytes;
+        try (var pstmt = databases.blob.prepareStatement(SCAN)) {
+            pstmt.setBytes(1, UuidCodec.toBytes(state.dataset.account().getId()));
+            var checksum = 0L;
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    checksum += UuidCodec.fromBytes(rs.getBytes("id")).getLeastSignificantBits();
+                    var categoryId = UuidCodec.fromBytes(rs.getBytes("categoryId"));
+                    if (categoryId != null) {
+                        checksum += categoryId.getLeastSignificantBits();
+                    }
+                    checksum += rs.getInt("type") + rs.getLong("amount");
+                }
+            }
+            return checksum;
+        }
+    }
+}
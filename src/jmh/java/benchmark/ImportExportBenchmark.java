@@ -0,0 +1,69 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.ImportResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ImportExportBenchmark {
+    @State(Scope.Benchmark)
+    public static class Workspace {
+        @Param({"10000"})
+        public int importRows;
+
+        Path importFile;
+        Path exportDirectory;
+
+        @Setup(Level.Trial)
+        public void setUp(DatasetState state) throws IOException {
+            importFile = Files.createTempFile("wallet-import-", ".csv");
+            Files.write(importFile, DatasetGenerator.csvLines(importRows, state.dataset.categories()), StandardCharsets.UTF_8);
+            exportDirectory = Files.createTempDirectory("wallet-export-");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(importFile);
+            for (var extension : new String[]{"csv", "json", "jsonl"}) {
+                Files.deleteIfExists(exportDirectory.resolve("operations." + extension));
+            }
+            Files.deleteIfExists(exportDirectory);
+        }
+    }
+
+    @Benchmark
+    public long exportCsv(DatasetState state, Workspace workspace) {
+        return state.walletService.exportOperations(state.dataset.user().id(), workspace.exportDirectory.resolve("operations.csv"));
+    }
+
+    @Benchmark
+    public long exportJsonLines(DatasetState state, Workspace workspace) {
+        return state.walletService.exportOperations(state.dataset.user().id(), workspace.exportDirectory.resolve("operations.jsonl"));
+    }
+
+    @Benchmark
+    public ImportResult importCsv(DatasetState state, Workspace workspace) {
+        return state.walletService.importOperations(state.dataset.user().id(), workspace.importFile);
+    }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.DatabaseConnection;
+import utils.UuidCodec;
+
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexLookupBenchmark {
+    private static final String BY_ACCOUNT = "SELECT id, amount FROM operations%s WHERE accountId = ?";
+    private static final String LATEST_PAGE =
+            "SELECT id, amount FROM operations%s WHERE accountId = ? ORDER BY date DESC, id DESC LIMIT 100";
+    private static final String NOT_INDEXED = " NOT INDEXED";
+
+    @Benchmark
+    public int recipientOperationsIndexed(DatasetState state) throws SQLException {
+        return count(state.dataset.database(), BY_ACCOUNT.formatted(""), state.dataset.recipientAccount().getId());
+    }
+
+    @Benchmark
+    public int recipientOperationsNotIndexed(DatasetState state) throws SQLException {
+        return count(state.dataset.database(), BY_ACCOUNT.formatted(NOT_INDEXED), state.dataset.recipientAccount().getId());
+    }
+
+    @Benchmark
+    public int latestPageIndexed(DatasetState state) throws SQLException {
+        return count(state.dataset.database(), LATEST_PAGE.formatted(""), state.dataset.account().getId());
+    }
+
+    @Benchmark
+    public int latestPageNotIndexed(DatasetState state) throws SQLException {
+        return count(state.dataset.database(), LATEST_PAGE.formatted(NOT_INDEXED), state.dataset.account().getId());
+    }
+
+    private int count(DatabaseConnection database, String sql, UUID accountId) throws SQLException {
+        try (var connection = database.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(accountId));
+            var rows = 0;
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rs.getBytes(1);
+                    rs.getLong(2);
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import model.Operation;
+import model.OperationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import service.WalletResult;
+import storage.OperationFilter;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageProfileBenchmark {
+    @State(Scope.Benchmark)
+    public static class ProfileDatasetState extends DatasetState {
+        @Param({"THROUGHPUT", "DURABILITY"})
+        public String profile;
+
+        @Override
+        protected void configure() {
+            System.setProperty("wallet.storageProfile", profile);
+        }
+    }
+
+    @Benchmark
+    public WalletResult<Operation> addOperation(ProfileDatasetState state) {
+        return state.walletService.addOperation(state.dataset.user().id(), OperationType.INCOME, null, 100, null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public WalletResult<Void> concurrentTransfers(ProfileDatasetState state) {
+        return state.walletService.transfer(state.dataset.user().id(), state.dataset.recipientAccount().getAccountNumber(), 1);
+    }
+
+    @Benchmark
+    public Map<OperationType, Long> summaryAllTime(ProfileDatasetState state) {
+        return state.walletService.getTotals(state.dataset.user().id(), OperationFilter.all()).value();
+    }
+}
@@ -0,0 +1,108 @@
+package benchmark;
+
+import model.Category;
+import model.Operation;
+import model.OperationEntry;
+import model.OperationType;
+import model.PeriodTotal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import storage.CachedCategoryStorage;
+import storage.CategoryStorage;
+import storage.OperationFilter;
+import storage.OperationStorage;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageReadBenchmark {
+    private static final int PAGE_SIZE = 100;
+    private static final YearMonth LAST_MONTH = YearMonth.of(2024, 12);
+
+    @State(Scope.Benchmark)
+    public static class Storages {
+        OperationStorage operationStorage;
+        CategoryStorage categoryStorage;
+        CachedCategoryStorage cachedCategoryStorage;
+        String[] categoryNames;
+        OperationFilter lastThirtyDays;
+
+        @Setup(Level.Trial)
+        public void setUp(DatasetState state) {
+            var database = state.dataset.database();
+            operationStorage = new OperationStorage(database);
+            categoryStorage = new CategoryStorage(database);
+            cachedCategoryStorage = new CachedCategoryStorage(database);
+            categoryNames = state.dataset.categories().stream().map(Category::getName).toArray(String[]::new);
+            var to = LAST_MONTH.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+            lastThirtyDays = OperationFilter.between(to.minus(30, ChronoUnit.DAYS), to);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        String nextName(String[] names) {
+            return names[next++ % names.length];
+        }
+    }
+
+    @Benchmark
+    public List<Operation> loadAllByAccountId(DatasetState state, Storages storages) {
+        return storages.operationStorage.loadAllByAccountId(state.dataset.account().getId());
+    }
+
+    @Benchmark
+    public List<OperationEntry> loadFirstPage(DatasetState state, Storages storages) {
+        return storages.operationStorage.loadPage(state.dataset.account().getId(), OperationFilter.all(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Map<OperationType, Long> summaryAllTime(DatasetState state) {
+        return state.walletService.getTotals(state.dataset.user().id(), OperationFilter.all()).value();
+    }
+
+    @Benchmark
+    public Map<OperationType, Long> summaryLastThirtyDays(DatasetState state, Storages storages) {
+        return state.walletService.getTotals(state.dataset.user().id(), storages.lastThirtyDays).value();
+    }
+
+    @Benchmark
+    public List<PeriodTotal> monthlyRollup(DatasetState state) {
+        return state.walletService.getMonthlyTotals(state.dataset.user().id(), LAST_MONTH.minusMonths(11), LAST_MONTH);
+    }
+
+    @Benchmark
+    public List<OperationEntry> searchNotes(DatasetState state, Storages storages) {
+        return storages.operationStorage.search(state.dataset.account().getId(), "такси", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Category categoryByName(DatasetState state, Storages storages, Cursor cursor) {
+        return storages.categoryStorage.loadByUserIdAndName(state.dataset.user().id(), cursor.nextName(storages.categoryNames));
+    }
+
+    @Benchmark
+    public Category cachedCategoryByName(DatasetState state, Storages storages, Cursor cursor) {
+        return storages.cachedCategoryStorage.loadByUserIdAndName(state.dataset.user().id(), cursor.nextName(storages.categoryNames));
+    }
+}
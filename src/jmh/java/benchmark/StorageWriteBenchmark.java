@@ -0,0 +1,71 @@
+package benchmark;
+
+import model.Account;
+import model.Operation;
+import model.OperationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.WalletResult;
+import storage.AccountStorage;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageWriteBenchmark {
+    @State(Scope.Benchmark)
+    public static class Accounts {
+        AccountStorage accountStorage;
+        Account account;
+
+        @Setup(Level.Trial)
+        public void setUp(DatasetState state) {
+            accountStorage = new AccountStorage(state.dataset.database());
+            account = accountStorage.load(state.dataset.account().getId());
+        }
+    }
+
+    @Benchmark
+    public Account accountUpdate(Accounts accounts) {
+        var account = accounts.account;
+        account.setBalance(account.getBalance() + 1);
+        accounts.accountStorage.update(account);
+        return account;
+    }
+
+    @Benchmark
+    public boolean accountConditionalUpdate(Accounts accounts) {
+        var current = accounts.accountStorage.load(accounts.account.getId());
+        var updated = new Account(current.getId(), current.getUserId(), current.getAccountNumber(),
+                current.getBalance() + 1, current.getVersion());
+        return accounts.accountStorage.tryUpdate(updated);
+    }
+
+    @Benchmark
+    public WalletResult<Operation> addOperation(DatasetState state) {
+        return state.walletService.addOperation(state.dataset.user().id(), OperationType.INCOME, null, 100, null);
+    }
+
+    @Benchmark
+    public WalletResult<Operation> addCategorisedExpense(DatasetState state) {
+        var categoryId = state.dataset.categories().get(0).getId();
+        return state.walletService.addOperation(state.dataset.user().id(), OperationType.EXPENSE, categoryId, 1, "benchmark");
+    }
+
+    @Benchmark
+    public WalletResult<Void> transfer(DatasetState state) {
+        return state.walletService.transfer(state.dataset.user().id(), state.dataset.recipientAccount().getAccountNumber(), 1);
+    }
+}
@@ -1,15 +1,62 @@
+import api.ApiServer;
 import controller.AuthController;
+import service.CrossShardTransferService;
+import service.LedgerSnapshotter;
+import service.WalletService;
+import storage.LedgerStorage;
+import storage.SchemaMigrator;
+import storage.ShardRouter;
 import storage.UserStorage;
+import utils.EdtLatencyProbe;
 import view.AuthView;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class Main {
+    private static final Logger logger = Logger.getLogger(Main.class.getName());
+    private static final long EDT_BLOCKED_THRESHOLD_MILLIS = 50;
+    private static final long EDT_PROBE_INTERVAL_MILLIS = 100;
+    private static final long EDT_REPORT_INTERVAL_MILLIS = 10_000;
+    private static final long LEDGER_SNAPSHOT_INTERVAL_MILLIS = 60_000;
+
     public static void main(String[] args) {
+        var shardRouter = ShardRouter.getInstance();
+        for (var database : shardRouter.getAllDatabases()) {
+            new SchemaMigrator(database).migrate();
+        }
+        new CrossShardTransferService(shardRouter).recover();
+
+        if (Boolean.getBoolean("wallet.edtProbe")) {
+            new EdtLatencyProbe(EDT_BLOCKED_THRESHOLD_MILLIS).start(EDT_PROBE_INTERVAL_MILLIS, EDT_REPORT_INTERVAL_MILLIS);
+        }
+
+        if (LedgerStorage.isEnabled()) {
+            for (var database : shardRouter.getAllDatabases()) {
+                var ledgerStorage = new LedgerStorage(database);
+                ledgerStorage.reconcile();
+                new LedgerSnapshotter(ledgerStorage).start(Long.getLong("wallet.ledger.snapshotMillis", LEDGER_SNAPSHOT_INTERVAL_MILLIS));
+            }
+        }
+
+        var walletService = new WalletService(shardRouter, new UserStorage());
+        var apiPort = Integer.getInteger("wallet.api.port");
+        if (apiPort != null) {
+            try {
+                new ApiServer(walletService).start(apiPort);
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Error starting wallet API", e);
+            }
+        }
+        if (Boolean.getBoolean("wallet.headless")) {
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
-            var userStorage = new UserStorage();
             var authView = new AuthView();
-            new AuthController(userStorage, authView);
+            new AuthController(walletService, authView);
         });
     }
 }
@@ -0,0 +1,145 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import utils.Json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class ApiExchange {
+    private static final String BEARER = "Bearer ";
+    private final HttpExchange exchange;
+    private final List<String> pathSegments;
+    private final Map<String, String> query;
+    private Map<String, Object> body;
+
+    public ApiExchange(HttpExchange exchange) {
+        this.exchange = exchange;
+        this.pathSegments = Arrays.stream(exchange.getRequestURI().getPath().split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .map(segment -> URLDecoder.decode(segment, StandardCharsets.UTF_8))
+                .toList();
+        this.query = parseQuery(exchange.getRequestURI().getRawQuery());
+    }
+
+    public String getMethod() {
+        return exchange.getRequestMethod();
+    }
+
+    public List<String> getPathSegments() {
+        return pathSegments;
+    }
+
+    public String getBearerToken() {
+        var header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && header.startsWith(BEARER) ? header.substring(BEARER.length()).trim() : null;
+    }
+
+    public String getQuery(String name) {
+        return query.get(name);
+    }
+
+    public int getQueryInt(String name, int defaultValue) {
+        var value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw badRequest("Parameter " + name + " must be an integer");
+        }
+    }
+
+    public Map<String, Object> getBody() throws IOException {
+        if (body == null) {
+            try (var input = exchange.getRequestBody()) {
+                var text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+                try {
+                    body = text.isBlank() ? Map.of() : Json.parseObject(text);
+                } catch (IllegalArgumentException e) {
+                    throw badRequest("Malformed JSON body: " + e.getMessage());
+                }
+            }
+        }
+        return body;
+    }
+
+    public String getString(String name) throws IOException {
+        var value = getBody().get(name);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String string) {
+            return string;
+        }
+        throw badRequest("Field " + name + " must be a string");
+    }
+
+    public long getLong(String name) throws IOException {
+        var value = getBody().get(name);
+        if (value instanceof BigDecimal number) {
+            try {
+                return number.longValueExact();
+            } catch (ArithmeticException e) {
+                throw badRequest("Field " + name + " must be an integer");
+            }
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        throw badRequest("Field " + name + " must be an integer");
+    }
+
+    public UUID getUuid(String name) throws IOException {
+        var value = getString(name);
+        return value == null ? null : parseUuid(value, name);
+    }
+
+    public void respond(int status, Object value) throws IOException {
+        var bytes = Json.write(value).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    public void respondEmpty(int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    public static UUID parseUuid(String value, String name) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw badRequest(name + " must be a UUID");
+        }
+    }
+
+    public static ApiException badRequest(String message) {
+        return new ApiException(400, "BAD_REQUEST", message);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        var parameters = new HashMap<String, String>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (var pair : rawQuery.split("&")) {
+            var separator = pair.indexOf('=');
+            var name = separator < 0 ? pair : pair.substring(0, separator);
+            var value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,421 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Category;
+import model.OperationEntry;
+import model.OperationType;
+import model.PeriodTotal;
+import service.WalletError;
+import service.WalletResult;
+import service.WalletService;
+import storage.OperationCursor;
+import storage.OperationFilter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ApiServer {
+    private static final Logger logger = Logger.getLogger(ApiServer.class.getName());
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private final WalletService walletService;
+    private final SessionRegistry sessions = new SessionRegistry();
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer(WalletService walletService) {
+        this.walletService = walletService;
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", exchange -> handle(exchange, this::routeApi));
+        server.createContext("/admin/", exchange -> handle(exchange, this::routeAdmin));
+        server.start();
+        logger.log(Level.INFO, "Wallet API listening on http://{0}:{1}",
+                new Object[]{server.getAddress().getHostString(), String.valueOf(getPort())});
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Router {
+        void route(ApiExchange exchange) throws IOException;
+    }
+
+    private void handle(HttpExchange httpExchange, Router router) {
+        var start = System.nanoTime();
+        var route = "unknown";
+        try (httpExchange) {
+            var exchange = new ApiExchange(httpExchange);
+            route = routeOf(exchange.getPathSegments());
+            try {
+                router.route(exchange);
+            } catch (ApiException e) {
+                if ("NOT_FOUND".equals(e.getCode())) {
+                    route = "unknown";
+                }
+                exchange.respond(e.getStatus(), error(e.getCode(), e.getMessage()));
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Error handling API request", e);
+                exchange.respond(500, error("INTERNAL_ERROR", "Internal server error"));
+            }
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Error writing API response", e);
+        } finally {
+            latencies.computeIfAbsent(httpExchange.getRequestMethod() + " " + route, key -> new LatencyHistogram())
+                    .record(System.nanoTime() - start);
+        }
+    }
+
+    private String routeOf(List<String> segments) {
+        if (segments.size() > 2 && "categories".equals(segments.get(1))) {
+            return "/api/categories/{name}";
+        }
+        if (segments.size() > 2 && "reports".equals(segments.get(1))) {
+            return "/api/reports/" + segments.get(2);
+        }
+        return "/" + String.join("/", segments.subList(0, Math.min(segments.size(), 2)));
+    }
+
+    private void routeApi(ApiExchange exchange) throws IOException {
+        var segments = exchange.getPathSegments();
+        var method = exchange.getMethod();
+        var resource = segments.size() > 1 ? segments.get(1) : "";
+        switch (resource) {
+            case "register" -> {
+                requireMethod(exchange, "POST");
+                register(exchange);
+            }
+            case "login" -> {
+                requireMethod(exchange, "POST");
+                login(exchange);
+            }
+            case "logout" -> {
+                requireMethod(exchange, "POST");
+                sessions.close(exchange.getBearerToken());
+                exchange.respondEmpty(204);
+            }
+            case "account" -> {
+                requireMethod(exchange, "GET");
+                account(exchange, authenticate(exchange));
+            }
+            case "operations" -> {
+                var userId = authenticate(exchange);
+                if ("GET".equals(method)) {
+                    listOperations(exchange, userId);
+                } else {
+                    requireMethod(exchange, "POST");
+                    addOperation(exchange, userId);
+                }
+            }
+            case "transfers" -> {
+                requireMethod(exchange, "POST");
+                transfer(exchange, authenticate(exchange));
+            }
+            case "categories" -> {
+                var userId = authenticate(exchange);
+                if (segments.size() == 2) {
+                    if ("GET".equals(method)) {
+                        listCategories(exchange, userId);
+                    } else {
+                        requireMethod(exchange, "POST");
+                        addCategory(exchange, userId);
+                    }
+                    return;
+                }
+                var name = segments.get(2);
+                if ("DELETE".equals(method)) {
+                    respondCategory(exchange, walletService.deleteCategory(userId, name));
+                } else {
+                    requireMethod(exchange, "PUT");
+                    respondCategory(exchange, walletService.updateCategoryLimit(userId, name, exchange.getLong("limit")));
+                }
+            }
+            case "summary" -> {
+                requireMethod(exchange, "GET");
+                summary(exchange, authenticate(exchange));
+            }
+            case "reports" -> {
+                requireMethod(exchange, "GET");
+                report(exchange, authenticate(exchange), segments.size() > 2 ? segments.get(2) : "");
+            }
+            default -> throw new ApiException(404, "NOT_FOUND", "Unknown resource");
+        }
+    }
+
+    private void routeAdmin(ApiExchange exchange) throws IOException {
+        var segments = exchange.getPathSegments();
+        if (segments.size() != 2 || !"metrics".equals(segments.get(1))) {
+            throw new ApiException(404, "NOT_FOUND", "Unknown resource");
+        }
+        if ("DELETE".equals(exchange.getMethod())) {
+            latencies.clear();
+            exchange.respondEmpty(204);
+            return;
+        }
+        requireMethod(exchange, "GET");
+        var routes = new TreeMap<String, Object>();
+        latencies.forEach((route, histogram) -> routes.put(route, histogram.toMap()));
+        exchange.respond(200, Map.of("routes", routes));
+    }
+
+    private void register(ApiExchange exchange) throws IOException {
+        var password = exchange.getString("password");
+        var result = walletService.register(exchange.getString("username"), password, password);
+        var user = unwrap(result);
+        exchange.respond(201, Map.of("userId", user.id().toString(), "username", user.username()));
+    }
+
+    private void login(ApiExchange exchange) throws IOException {
+        var user = unwrap(walletService.login(exchange.getString("username"), exchange.getString("password")));
+        exchange.respond(200, Map.of("token", sessions.open(user.id()), "userId", user.id().toString()));
+    }
+
+    private void account(ApiExchange exchange, UUID userId) throws IOException {
+        var account = unwrap(walletService.getAccount(userId));
+        var body = new LinkedHashMap<String, Object>();
+        body.put("accountId", account.getId().toString());
+        body.put("accountNumber", account.getAccountNumber());
+        body.put("balance", account.getBalance());
+        exchange.respond(200, body);
+    }
+
+    private void listOperations(ApiExchange exchange, UUID userId) throws IOException {
+        var pageSize = Math.min(Math.max(exchange.getQueryInt("limit", DEFAULT_PAGE_SIZE), 1), MAX_PAGE_SIZE);
+        var text = exchange.getQuery("q");
+        List<OperationEntry> entries;
+        String next = null;
+        if (text != null && !text.isBlank()) {
+            var offset = Math.max(exchange.getQueryInt("offset", 0), 0);
+            entries = walletService.searchOperations(userId, text, offset, pageSize);
+            if (entries.size() == pageSize) {
+                next = String.valueOf(offset + pageSize);
+            }
+        } else {
+            entries = walletService.loadOperationPage(userId, toFilter(exchange), parseCursor(exchange.getQuery("after")), pageSize);
+            if (entries.size() == pageSize) {
+                var last = OperationCursor.after(entries.get(entries.size() - 1).operation());
+                next = last.date() + ":" + last.id();
+            }
+        }
+        var operations = new ArrayList<Map<String, Object>>(entries.size());
+        for (var entry : entries) {
+            operations.add(toJson(entry));
+        }
+        var body = new LinkedHashMap<String, Object>();
+        body.put("operations", operations);
+        body.put("next", next);
+        exchange.respond(200, body);
+    }
+
+    private void addOperation(ApiExchange exchange, UUID userId) throws IOException {
+        var type = parseType(exchange.getString("type"));
+        if (type == null) {
+            throw ApiExchange.badRequest("Field type must be INCOME or EXPENSE");
+        }
+        var operation = unwrap(walletService.addOperation(userId, type, exchange.getUuid("categoryId"),
+                exchange.getLong("amount"), exchange.getString("note")));
+        exchange.respond(201, toJson(new OperationEntry(operation, null)));
+    }
+
+    private void transfer(ApiExchange exchange, UUID userId) throws IOException {
+        unwrap(walletService.transfer(userId, exchange.getLong("accountNumber"), exchange.getLong("amount")));
+        exchange.respondEmpty(204);
+    }
+
+    private void listCategories(ApiExchange exchange, UUID userId) throws IOException {
+        var spentByCategory = unwrap(walletService.getSpentByCategory(userId));
+        var categories = new ArrayList<Map<String, Object>>();
+        for (var category : walletService.getCategories(userId)) {
+            var json = toJson(category);
+            var spent = spentByCategory.getOrDefault(category.getId(), 0L);
+            json.put("spent", spent);
+            json.put("remaining", category.getRemaining(spent));
+            categories.add(json);
+        }
+        exchange.respond(200, Map.of("categories", categories));
+    }
+
+    private void addCategory(ApiExchange exchange, UUID userId) throws IOException {
+        var category = unwrap(walletService.addCategory(userId, exchange.getString("name"), exchange.getLong("limit")));
+        exchange.respond(201, toJson(category));
+    }
+
+    private void respondCategory(ApiExchange exchange, WalletResult<Category> result) throws IOException {
+        exchange.respond(200, toJson(unwrap(result)));
+    }
+
+    private void summary(ApiExchange exchange, UUID userId) throws IOException {
+        var totals = unwrap(walletService.getTotals(userId, toFilter(exchange)));
+        var body = new LinkedHashMap<String, Object>();
+        body.put("income", totals.getOrDefault(OperationType.INCOME, 0L));
+        body.put("expense", totals.getOrDefault(OperationType.EXPENSE, 0L));
+        exchange.respond(200, body);
+    }
+
+    private void report(ApiExchange exchange, UUID userId, String granularity) throws IOException {
+        List<PeriodTotal> totals;
+        try {
+            totals = switch (granularity) {
+                case "daily" -> {
+                    var to = exchange.getQuery("to") != null ? LocalDate.parse(exchange.getQuery("to")) : LocalDate.now();
+                    var from = exchange.getQuery("from") != null ? LocalDate.parse(exchange.getQuery("from")) : to.minusDays(29);
+                    yield walletService.getDailyTotals(userId, from, to);
+                }
+                case "monthly" -> {
+                    var to = exchange.getQuery("to") != null ? YearMonth.parse(exchange.getQuery("to")) : YearMonth.now();
+                    var from = exchange.getQuery("from") != null ? YearMonth.parse(exchange.getQuery("from")) : to.minusMonths(11);
+                    yield walletService.getMonthlyTotals(userId, from, to);
+                }
+                default -> throw new ApiException(404, "NOT_FOUND", "Report must be daily or monthly");
+            };
+        } catch (DateTimeParseException e) {
+            throw ApiExchange.badRequest("Invalid period: " + e.getParsedString());
+        }
+        var periods = new ArrayList<Map<String, Object>>(totals.size());
+        for (var total : totals) {
+            var json = new LinkedHashMap<String, Object>();
+            json.put("period", total.period());
+            json.put("income", total.income());
+            json.put("expense", total.expense());
+            periods.add(json);
+        }
+        exchange.respond(200, Map.of("periods", periods));
+    }
+
+    private UUID authenticate(ApiExchange exchange) {
+        var userId = sessions.resolve(exchange.getBearerToken());
+        if (userId == null) {
+            throw new ApiException(401, "UNAUTHORIZED", "Missing or invalid bearer token");
+        }
+        return userId;
+    }
+
+    private void requireMethod(ApiExchange exchange, String method) {
+        if (!method.equals(exchange.getMethod())) {
+            throw new ApiException(405, "METHOD_NOT_ALLOWED", "Expected " + method);
+        }
+    }
+
+    private OperationFilter toFilter(ApiExchange exchange) {
+        var type = parseType(exchange.getQuery("type"));
+        var category = exchange.getQuery("category");
+        var withoutCategory = "true".equals(exchange.getQuery("withoutCategory"));
+        return new OperationFilter(type, withoutCategory ? null : category, withoutCategory,
+                parseInstant(exchange.getQuery("from")), parseInstant(exchange.getQuery("to")));
+    }
+
+    private OperationType parseType(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return OperationType.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw ApiExchange.badRequest("type must be INCOME or EXPENSE");
+        }
+    }
+
+    private Instant parseInstant(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw ApiExchange.badRequest("Invalid ISO-8601 instant: " + value);
+        }
+    }
+
+    private OperationCursor parseCursor(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        var separator = value.indexOf(':');
+        if (separator < 0) {
+            throw ApiExchange.badRequest("after must be <epochMillis>:<operationId>");
+        }
+        try {
+            return new OperationCursor(Long.parseLong(value.substring(0, separator)),
+                    ApiExchange.parseUuid(value.substring(separator + 1), "after"));
+        } catch (NumberFormatException e) {
+            throw ApiExchange.badRequest("after must be <epochMillis>:<operationId>");
+        }
+    }
+
+    private <T> T unwrap(WalletResult<T> result) {
+        if (result.isSuccess()) {
+            return result.value();
+        }
+        throw new ApiException(statusOf(result.error()), result.error().name(), result.message());
+    }
+
+    private int statusOf(WalletError error) {
+        return switch (error) {
+            case INVALID_CREDENTIALS -> 401;
+            case ACCOUNT_NOT_FOUND, RECIPIENT_NOT_FOUND, CATEGORY_NOT_FOUND -> 404;
+            case USERNAME_TAKEN, CATEGORY_EXISTS, CONFLICT -> 409;
+            case INSUFFICIENT_FUNDS, CATEGORY_LIMIT_EXCEEDED -> 422;
+            case FAILED -> 500;
+            default -> 400;
+        };
+    }
+
+    private Map<String, Object> toJson(OperationEntry entry) {
+        var operation = entry.operation();
+        var json = new LinkedHashMap<String, Object>();
+        json.put("id", operation.id().toString());
+        json.put("categoryId", operation.categoryId() != null ? operation.categoryId().toString() : null);
+        json.put("categoryName", entry.categoryName());
+        json.put("type", operation.type().name());
+        json.put("amount", operation.amount());
+        json.put("date", operation.date().toString());
+        json.put("note", operation.note());
+        return json;
+    }
+
+    private Map<String, Object> toJson(Category category) {
+        var json = new LinkedHashMap<String, Object>();
+        json.put("id", category.getId().toString());
+        json.put("name", category.getName());
+        json.put("limit", category.getLimit());
+        return json;
+    }
+
+    private Map<String, Object> error(String code, String message) {
+        var json = new LinkedHashMap<String, Object>();
+        json.put("error", code);
+        json.put("message", message);
+        return json;
+    }
+}
@@ -0,0 +1,92 @@
+package api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 8;
+    private static final int MAGNITUDES = 40;
+    private final AtomicLongArray counts = new AtomicLongArray(MAGNITUDES * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        var value = Math.max(1, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMillis() {
+        var samples = count.sum();
+        return samples == 0 ? 0 : totalNanos.sum() / (samples * 1_000_000.0);
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    public double getPercentileMillis(double percentile) {
+        var samples = 0L;
+        var snapshot = new long[counts.length()];
+        for (var i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            samples += snapshot[i];
+        }
+        if (samples == 0) {
+            return 0;
+        }
+        var rank = (long) Math.ceil(percentile / 100.0 * samples);
+        var seen = 0L;
+        for (var i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxNanos.get()) / 1_000_000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public Map<String, Object> toMap() {
+        var map = new LinkedHashMap<String, Object>();
+        map.put("count", getCount());
+        map.put("meanMs", round(getMeanMillis()));
+        map.put("p50Ms", round(getPercentileMillis(50)));
+        map.put("p90Ms", round(getPercentileMillis(90)));
+        map.put("p99Ms", round(getPercentileMillis(99)));
+        map.put("p999Ms", round(getPercentileMillis(99.9)));
+        map.put("maxMs", round(getMaxMillis()));
+        return map;
+    }
+
+    private static int bucketOf(long value) {
+        var magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude < 3) {
+            return (int) value;
+        }
+        var subBucket = (int) ((value >>> (magnitude - 3)) & (SUB_BUCKETS - 1));
+        return Math.min((magnitude - 2) * SUB_BUCKETS + subBucket, MAGNITUDES * SUB_BUCKETS - 1);
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        var magnitude = bucket / SUB_BUCKETS + 2;
+        var subBucket = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (magnitude - 3)) - 1;
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,128 @@
+package api;
+
+import utils.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class LoadTest {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    private final String baseUrl;
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    public LoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var baseUrl = args.length > 0 ? args[0] : "http://127.0.0.1:8080";
+        var rate = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        var seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        var users = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+        new LoadTest(baseUrl).run(rate, seconds, users);
+    }
+
+    public void run(int rate, int seconds, int users) throws IOException, InterruptedException {
+        var tokens = createUsers(users);
+        System.out.printf("Running %d req/s for %d s against %s with %d users%n", rate, seconds, baseUrl, users);
+
+        var intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        var total = (long) rate * seconds;
+        var start = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0L; i < total; i++) {
+                var scheduledAt = start + i * intervalNanos;
+                var delay = scheduledAt - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                var token = tokens.get((int) (i % tokens.size()));
+                executor.submit(() -> issue(token, scheduledAt));
+            }
+        }
+        var elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("Completed %d requests in %.1f s (%.0f req/s), errors: %d%n",
+                total, elapsedSeconds, total / elapsedSeconds, errors.sum());
+        new TreeMap<>(latencies).forEach((route, histogram) -> System.out.println(route + " " + Json.write(histogram.toMap())));
+        System.out.println("Server metrics: " + send(HttpRequest.newBuilder(uri("/admin/metrics")).GET(), null).body());
+    }
+
+    private List<String> createUsers(int users) throws IOException, InterruptedException {
+        var tokens = new ArrayList<String>(users);
+        for (var i = 0; i < users; i++) {
+            var credentials = Json.write(Map.of("username", "load-" + UUID.randomUUID(), "password", "secret"));
+            send(post("/api/register", credentials), null);
+            var login = Json.parseObject(send(post("/api/login", credentials), null).body());
+            var token = (String) login.get("token");
+            send(post("/api/operations", Json.write(Map.of("type", "INCOME", "amount", 1_000_000_00L))), token);
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private void issue(String token, long scheduledAt) {
+        var choice = ThreadLocalRandom.current().nextInt(100);
+        String route;
+        HttpRequest.Builder request;
+        if (choice < 70) {
+            route = "GET /api/operations";
+            request = HttpRequest.newBuilder(uri("/api/operations?limit=50")).GET();
+        } else if (choice < 90) {
+            route = "POST /api/operations";
+            request = post("/api/operations", Json.write(Map.of("type", "EXPENSE", "amount", 100L, "note", "load test")));
+        } else {
+            route = "GET /api/summary";
+            request = HttpRequest.newBuilder(uri("/api/summary")).GET();
+        }
+        try {
+            var response = send(request, token);
+            if (response.statusCode() >= 400) {
+                errors.increment();
+            }
+        } catch (IOException e) {
+            errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        latencies.computeIfAbsent(route, key -> new LatencyHistogram()).record(System.nanoTime() - scheduledAt);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request, String token) throws IOException, InterruptedException {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+}
@@ -0,0 +1,25 @@
+package api;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SessionRegistry {
+    private final Map<String, UUID> userIdsByToken = new ConcurrentHashMap<>();
+
+    public String open(UUID userId) {
+        var token = UUID.randomUUID().toString();
+        userIdsByToken.put(token, userId);
+        return token;
+    }
+
+    public UUID resolve(String token) {
+        return token == null ? null : userIdsByToken.get(token);
+    }
+
+    public void close(String token) {
+        if (token != null) {
+            userIdsByToken.remove(token);
+        }
+    }
+}
@@ -1,20 +1,18 @@
 package controller;
 
 import model.User;
-import storage.AccountStorage;
-import storage.UserStorage;
+import service.WalletService;
+import utils.StorageExecutor;
 import view.AuthView;
 import view.MainView;
 import view.RegistrationView;
 
-import java.util.Objects;
-
 public class AuthController {
     private final AuthView view;
-    private final UserStorage userStorage;
+    private final WalletService walletService;
 
-    public AuthController(UserStorage userStorage, AuthView view) {
-        this.userStorage = userStorage;
+    public AuthController(WalletService walletService, AuthView view) {
+        this.walletService = walletService;
         this.view = view;
         initialize();
     }
@@ -29,51 +27,24 @@ public class AuthController {
         var username = view.getLoginInput();
         var password = view.getPasswordInput();
 
-        if (isInputInvalid(username, password)) {
-            return;
-        }
-
-        var currentUser = userStorage.loadByUsername(username);
-
-        if (isLoginInvalid(currentUser, password)) {
-            view.showError("Неверный логин или пароль");
-            return;
-        }
+        StorageExecutor.submit(() -> walletService.login(username, password), result -> {
+            if (!result.isSuccess()) {
+                view.showError(result.message());
+                return;
+            }
 
-        proceedToMainScreen(currentUser);
-        view.close();
+            proceedToMainScreen(result.value());
+            view.close();
+        });
     }
 
     public void proceedToRegistrationScreen() {
-        var accountStorage = new AccountStorage();
         var registrationView = new RegistrationView();
-        new RegistrationController(userStorage, accountStorage, registrationView);
+        new RegistrationController(walletService, registrationView);
     }
 
     private void proceedToMainScreen(User user) {
-        var mainView = new MainView(user);
-        new MainController(userStorage, mainView);
-    }
-
-    private boolean isInputInvalid(String username, String password) {
-        if (isBlank(username)) {
-            view.showError("Введите логин");
-            return true;
-        }
-
-        if (isBlank(password)) {
-            view.showError("Введите пароль");
-            return true;
-        }
-
-        return false;
-    }
-
-    private boolean isLoginInvalid(User user, String password) {
-        return user == null || !Objects.equals(user.password(), password);
-    }
-
-    private boolean isBlank(String input) {
-        return input == null || input.isBlank();
+        var mainView = new MainView(user, walletService);
+        new MainController(walletService, mainView);
     }
 }
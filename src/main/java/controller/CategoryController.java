@@ -1,82 +1,86 @@
 package controller;
 
 import model.Category;
-import model.Operation;
-import storage.AccountStorage;
-import storage.CategoryStorage;
-import storage.OperationStorage;
+import model.CategoryChanged;
+import model.OperationAdded;
+import model.OperationType;
+import service.WalletResult;
+import service.WalletService;
+import utils.EventBus;
+import utils.StorageExecutor;
 import view.components.CategoryPanel;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class CategoryController {
     private final CategoryPanel view;
-    private final AccountStorage accountStorage;
-    private final OperationStorage operationStorage;
-    private final CategoryStorage categoryStorage;
+    private final WalletService walletService;
+    private final List<Runnable> subscriptions = new ArrayList<>();
+    private volatile UUID accountId;
 
-    public CategoryController(
-            AccountStorage accountStorage,
-            OperationStorage operationStorage,
-            CategoryStorage categoryStorage,
-            CategoryPanel view
-    ) {
-        this.accountStorage = accountStorage;
-        this.operationStorage = operationStorage;
-        this.categoryStorage = categoryStorage;
+    public CategoryController(WalletService walletService, CategoryPanel view) {
+        this.walletService = walletService;
         this.view = view;
+        var eventBus = EventBus.getInstance();
+        subscriptions.add(eventBus.subscribe(CategoryChanged.class, this::onCategoryChanged));
+        subscriptions.add(eventBus.subscribe(OperationAdded.class, this::onOperationAdded));
     }
 
-    public void updateCategories() {
-        var categories = getCategoriesForUser(view.getUserId());
-        view.loadCategories(categories);
+    public void close() {
+        subscriptions.forEach(Runnable::run);
+        subscriptions.clear();
     }
 
-    public void addCategory(String name, double limit, UUID userId) {
-        if (categoryExists(name, userId)) {
-            view.showError("Категория с таким именем уже существует.");
-            return;
+    private void onCategoryChanged(CategoryChanged event) {
+        if (event.isDeleted()) {
+            view.removeCategory(event.categoryId());
+        } else if (event.category().getUserId().equals(view.getUserId())) {
+            view.putCategory(event.category());
         }
-        var newCategory = new Category(UUID.randomUUID(), userId, name, limit);
-        categoryStorage.save(newCategory);
-        updateCategories();
     }
 
-    public void updateCategoryLimit(String name, double limit, UUID userId) {
-        var category = categoryStorage.loadByUserIdAndName(userId, name);
-        if (category != null) {
-            category.setLimit(limit);
-            categoryStorage.update(category);
-            updateCategories();
-        } else {
-            view.showError("Категория не найдена.");
+    private void onOperationAdded(OperationAdded event) {
+        var operation = event.operation();
+        if (operation.type() == OperationType.EXPENSE && operation.categoryId() != null
+                && operation.accountId().equals(accountId)) {
+            view.addSpent(operation.categoryId(), operation.amount());
         }
     }
 
-    public void deleteCategory(String name, UUID userId) {
-        var category = categoryStorage.loadByUserIdAndName(userId, name);
-        if (category != null) {
-            categoryStorage.delete(category.getId());
-            updateCategories();
-        } else {
-            view.showError("Категория не найдена.");
-        }
+    public void updateCategories() {
+        var userId = view.getUserId();
+        StorageExecutor.submit(() -> {
+            var account = walletService.getAccount(userId);
+            if (account.isSuccess()) {
+                accountId = account.value().getId();
+            }
+            var spentByCategory = walletService.getSpentByCategory(userId);
+            return new CategorySnapshot(walletService.getCategories(userId),
+                    spentByCategory.isSuccess() ? spentByCategory.value() : Map.of());
+        }, snapshot -> view.loadCategories(snapshot.categories(), snapshot.spentByCategory()));
+    }
+
+    public void addCategory(String name, long limit, UUID userId) {
+        StorageExecutor.submit(() -> walletService.addCategory(userId, name, limit), this::showFailure);
     }
 
-    public boolean categoryExists(String name, UUID userId) {
-        return categoryStorage.loadByUserIdAndName(userId, name) != null;
+    public void updateCategoryLimit(String name, long limit, UUID userId) {
+        StorageExecutor.submit(() -> walletService.updateCategoryLimit(userId, name, limit), this::showFailure);
     }
 
-    public double getSpentInCategory(UUID userId, UUID categoryId) {
-        var operations = operationStorage.loadAllByAccountId(accountStorage.loadByUserId(userId).getId());
-        return operations.stream()
-                .filter(op -> op.type().equals("Расход") && op.categoryId() != null && op.categoryId().equals(categoryId))
-                .mapToDouble(Operation::amount)
-                .sum();
+    public void deleteCategory(String name, UUID userId) {
+        StorageExecutor.submit(() -> walletService.deleteCategory(userId, name), this::showFailure);
+    }
+
+    private void showFailure(WalletResult<Category> result) {
+        if (!result.isSuccess()) {
+            view.showError(result.message());
+        }
     }
 
-    public List<Category> getCategoriesForUser(UUID userId) {
-        return categoryStorage.loadAllByUserId(userId);
+    private record CategorySnapshot(List<Category> categories, Map<UUID, Long> spentByCategory) {
     }
 }
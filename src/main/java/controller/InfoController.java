@@ -1,29 +1,49 @@
 package controller;
 
-import storage.AccountStorage;
-import storage.UserStorage;
+import model.Account;
+import model.AccountBalanceChanged;
+import model.User;
+import service.WalletService;
+import utils.EventBus;
+import utils.StorageExecutor;
 import view.components.InfoPanel;
 
+import java.util.UUID;
+
 public class InfoController {
     private final InfoPanel view;
-    private final UserStorage userStorage;
-    private final AccountStorage accountStorage;
+    private final WalletService walletService;
+    private final Runnable subscription;
+    private volatile UUID accountId;
 
-    public InfoController(UserStorage userStorage, AccountStorage accountStorage, InfoPanel view) {
-        this.userStorage = userStorage;
-        this.accountStorage = accountStorage;
+    public InfoController(WalletService walletService, InfoPanel view) {
+        this.walletService = walletService;
         this.view = view;
+        this.subscription = EventBus.getInstance().subscribe(AccountBalanceChanged.class, this::onBalanceChanged);
         updateInfo();
     }
 
+    public void close() {
+        subscription.run();
+    }
+
+    private void onBalanceChanged(AccountBalanceChanged event) {
+        if (event.accountId().equals(accountId)) {
+            view.setBalance(event.balance());
+        }
+    }
+
     public void updateInfo() {
         var userId = view.getUserId();
 
-        var user = userStorage.load(userId);
-        view.setName(user.username());
+        StorageExecutor.submit(() -> new AccountInfo(walletService.getUser(userId), walletService.getAccount(userId).value()), info -> {
+            accountId = info.account().getId();
+            view.setName(info.user().username());
+            view.setNumberAccount(info.account().getAccountNumber());
+            view.setBalance(info.account().getBalance());
+        });
+    }
 
-        var account = accountStorage.loadByUserId(userId);
-        view.setNumberAccount(account.getAccountNumber());
-        view.setBalance(account.getBalance());
+    private record AccountInfo(User user, Account account) {
     }
 }
@@ -1,6 +1,6 @@
 package controller;
 
-import storage.UserStorage;
+import service.WalletService;
 import view.AuthView;
 import view.MainView;
 
@@ -8,18 +8,18 @@ import javax.swing.*;
 
 public class MainController {
     private final MainView view;
-    private final UserStorage userStorage;
+    private final WalletService walletService;
 
-    public MainController(UserStorage userStorage, MainView view) {
+    public MainController(WalletService walletService, MainView view) {
         this.view = view;
-        this.userStorage = userStorage;
+        this.walletService = walletService;
     }
 
     public void switchUser() {
         view.close();
         SwingUtilities.invokeLater(() -> {
             var authView = new AuthView();
-            new AuthController(userStorage, authView);
+            new AuthController(walletService, authView);
         });
     }
 
@@ -1,86 +1,109 @@
 package controller;
 
 import model.Category;
-import model.Operation;
-import storage.AccountStorage;
-import storage.CategoryStorage;
-import storage.OperationStorage;
+import model.CategoryChanged;
+import model.DatePeriod;
+import model.OperationAdded;
+import model.OperationEntry;
+import model.OperationType;
+import service.WalletService;
+import storage.OperationCursor;
+import storage.OperationFilter;
+import utils.EventBus;
+import utils.MoneyFormatter;
+import utils.StorageExecutor;
 import view.components.OperationPanel;
 
 import javax.swing.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class OperationController {
     private final OperationPanel view;
-    private final AccountStorage accountStorage;
-    private final OperationStorage operationStorage;
-    private final CategoryStorage categoryStorage;
+    private final WalletService walletService;
+    private final Map<UUID, String> categoryNames = new HashMap<>();
+    private final List<Runnable> subscriptions = new ArrayList<>();
+    private final UUID accountId;
 
-    public OperationController(OperationPanel view, AccountStorage accountStorage, OperationStorage operationStorage, CategoryStorage categoryStorage) {
+    public OperationController(OperationPanel view, WalletService walletService) {
         this.view = view;
-        this.accountStorage = accountStorage;
-        this.operationStorage = operationStorage;
-        this.categoryStorage = categoryStorage;
+        this.walletService = walletService;
+        var account = walletService.getAccount(view.getUserID());
+        this.accountId = account.isSuccess() ? account.value().getId() : null;
+        var eventBus = EventBus.getInstance();
+        subscriptions.add(eventBus.subscribe(OperationAdded.class, this::onOperationAdded));
+        subscriptions.add(eventBus.subscribe(CategoryChanged.class, this::onCategoryChanged));
     }
 
-    public void addOperation() {
-        var type = getOperationType();
-        if (type == null) return;
-
-        var categories = categoryStorage.loadAllByUserId(view.getUserID());
-        var categoryId = getCategoryId(categories);
-
-        var amountStr = JOptionPane.showInputDialog("Введите сумму (больше 0):");
-        if (amountStr == null) return;
-
-        var amount = parseAmount(amountStr);
-        if (amount < 0) return;
+    public void close() {
+        subscriptions.forEach(Runnable::run);
+        subscriptions.clear();
+    }
 
-        double balance = accountStorage.loadByUserId(view.getUserID()).getBalance();
-        if (type.equals("Расход") && amount > balance) {
-            view.showError("Недостаточно средств на счете.");
+    private void onOperationAdded(OperationAdded event) {
+        var operation = event.operation();
+        if (!operation.accountId().equals(accountId)) {
             return;
         }
+        var snapshot = view.getSnapshotVersion();
+        StorageExecutor.submit(() -> walletService.findOperation(view.getUserID(), operation.id()), entry -> {
+            if (entry != null) {
+                view.insertOperation(entry, snapshot);
+            }
+        });
+    }
 
-        if (type.equals("Расход") && categoryId != null) {
-            var category = categoryStorage.load(categoryId);
-            double spentInCategory = getSpentInCategory(categoryId);
-            double remainingLimit = category.getRemaining(spentInCategory);
-            if (amount > remainingLimit) {
-                view.showError("Лимит по категории исчерпан. Осталось: " + remainingLimit);
-                return;
+    private void onCategoryChanged(CategoryChanged event) {
+        if (event.isDeleted()) {
+            if (categoryNames.remove(event.categoryId()) != null) {
+                loadCategories();
             }
+            return;
+        }
+        if (!event.category().getUserId().equals(view.getUserID())) {
+            return;
+        }
+        var previousName = categoryNames.put(event.categoryId(), event.category().getName());
+        if (!event.category().getName().equals(previousName)) {
+            loadCategories();
         }
+    }
 
-        var date = getCurrentDateTime();
-        var accountId = accountStorage.loadByUserId(view.getUserID()).getId();
-        var operation = new Operation(UUID.randomUUID(), accountId, categoryId, type, amount, date);
+    public boolean matchesFilter(OperationEntry entry, String selectedCategory, String selectedType, String selectedPeriod) {
+        return toFilter(selectedCategory, selectedType, selectedPeriod).matches(entry.operation(), entry.categoryName());
+    }
 
-        operationStorage.save(operation);
+    public void addOperation() {
+        var type = getOperationType();
+        if (type == null) return;
 
-        var account = accountStorage.loadByUserId(view.getUserID());
-        var oldBalance = account.getBalance();
-        var newBalance = type.equals("Расход") ? oldBalance - amount : oldBalance + amount;
-        account.setBalance(newBalance);
+        StorageExecutor.submit(() -> walletService.getCategories(view.getUserID()), categories -> {
+            var categoryId = getCategoryId(categories);
 
-        accountStorage.update(account);
+            var amountStr = JOptionPane.showInputDialog("Введите сумму (больше 0):");
+            if (amountStr == null) return;
 
-        view.loadOperations();
-    }
+            var amount = parseAmount(amountStr);
+            if (amount < 0) return;
+
+            var noteStr = JOptionPane.showInputDialog(view, "Введите примечание (необязательно):");
+            var note = noteStr == null || noteStr.isBlank() ? null : noteStr.trim();
 
-    private double getSpentInCategory(UUID categoryId) {
-        var operations = operationStorage.loadAllByAccountId(accountStorage.loadByUserId(view.getUserID()).getId());
-        return operations.stream()
-                .filter(op -> op.type().equals("Расход") && op.categoryId() != null && op.categoryId().equals(categoryId))
-                .mapToDouble(Operation::amount)
-                .sum();
+            StorageExecutor.submit(() -> walletService.addOperation(view.getUserID(), type, categoryId, amount, note), result -> {
+                if (!result.isSuccess()) {
+                    view.showError(result.message());
+                }
+            });
+        });
     }
 
-    private String getOperationType() {
-        var options = new String[]{"Доход", "Расход"};
+    private OperationType getOperationType() {
+        var options = OperationType.values();
         var choice = JOptionPane.showOptionDialog(view, "Выберите тип операции:", "Добавить операцию",
                 JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
         return (choice == -1) ? null : options[choice];
@@ -110,9 +133,9 @@ public class OperationController {
                 .orElse(null);
     }
 
-    private double parseAmount(String amountStr) {
+    private long parseAmount(String amountStr) {
         try {
-            var amount = Double.parseDouble(amountStr);
+            var amount = MoneyFormatter.parse(amountStr);
             if (amount <= 0) {
                 throw new NumberFormatException("Сумма должна быть больше 0.");
             }
@@ -123,77 +146,39 @@ public class OperationController {
         }
     }
 
-    private String getCurrentDateTime() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+    public Map<OperationType, Long> getTotalsByType(String selectedCategory, String selectedType, String selectedPeriod) {
+        var totals = walletService.getTotals(view.getUserID(), toFilter(selectedCategory, selectedType, selectedPeriod));
+        return totals.isSuccess() ? totals.value() : Map.of();
     }
 
-    private boolean isTypeMatching(Operation operation, String selectedType) {
-        return selectedType.equals("Все типы") || operation.type().equals(selectedType);
-    }
-
-    private boolean isCategoryMatching(Operation operation, String selectedCategory) {
-        if ("Все категории".equals(selectedCategory)) {
-            return true;
-        }
-
-        if (operation.categoryId() == null) {
-            return "Без категории".equals(selectedCategory);
-        }
-
-        var category = getCategoryById(operation.categoryId());
-        if (category == null) {
-            return "Без категории".equals(selectedCategory);
+    private OperationFilter toFilter(String selectedCategory, String selectedType, String selectedPeriod) {
+        var type = OperationType.fromLabel(selectedType);
+        var period = DatePeriod.fromLabel(selectedPeriod);
+        var now = ZonedDateTime.now();
+        if ("Без категории".equals(selectedCategory)) {
+            return new OperationFilter(type, null, true, period.getFrom(now), period.getTo(now));
         }
-
-        return category.getName().equals(selectedCategory);
+        var categoryName = "Все категории".equals(selectedCategory) ? null : selectedCategory;
+        return new OperationFilter(type, categoryName, false, period.getFrom(now), period.getTo(now));
     }
 
-    private UUID getOrCreateTransferCategory() {
-        var categories = categoryStorage.loadAllByUserId(view.getUserID());
-        return categories.stream()
-                .filter(cat -> "Перевод".equals(cat.getName()))
-                .findFirst()
-                .map(Category::getId)
-                .orElseGet(() -> {
-                    var newCategory = new Category(UUID.randomUUID(), view.getUserID(), "Перевод", Double.MAX_VALUE);
-                    categoryStorage.save(newCategory);
-                    return newCategory.getId();
-                });
+    public List<OperationEntry> loadOperationPage(String selectedCategory, String selectedType, String selectedPeriod,
+                                                  OperationCursor after, int pageSize) {
+        return walletService.loadOperationPage(view.getUserID(), toFilter(selectedCategory, selectedType, selectedPeriod), after, pageSize);
     }
 
-    public double getTotalIncome(String selectedCategory, String selectedType) {
-        var operations = getFilteredOperationsByUserId(selectedCategory, selectedType);
-        return operations.stream()
-                .filter(op -> op.type().equals("Доход"))
-                .mapToDouble(Operation::amount)
-                .sum();
-    }
-
-    public double getTotalExpense(String selectedCategory, String selectedType) {
-        var operations = getFilteredOperationsByUserId(selectedCategory, selectedType);
-        return operations.stream()
-                .filter(op -> op.type().equals("Расход"))
-                .mapToDouble(Operation::amount)
-                .sum();
-    }
-
-
-    public List<Operation> getFilteredOperationsByUserId(String selectedCategory, String selectedType) {
-        var accountId = accountStorage.loadByUserId(view.getUserID()).getId();
-        var operations = operationStorage.loadAllByAccountId(accountId);
-
-        return operations.stream()
-                .filter(operation -> isTypeMatching(operation, selectedType) && isCategoryMatching(operation, selectedCategory))
-                .toList();
+    public List<OperationEntry> searchOperations(String text, int offset, int pageSize) {
+        return walletService.searchOperations(view.getUserID(), text, offset, pageSize);
     }
 
     public void loadCategories() {
-        var categories = categoryStorage.loadAllByUserId(view.getUserID());
-        view.updateCategoryFilter(categories);
-    }
-
-    public Category getCategoryById(UUID categoryId) {
-        return categoryStorage.load(categoryId);
+        StorageExecutor.submit(() -> walletService.getCategories(view.getUserID()), categories -> {
+            categoryNames.clear();
+            for (var category : categories) {
+                categoryNames.put(category.getId(), category.getName());
+            }
+            view.updateCategoryFilter(categories);
+        });
     }
 
     public void makeTransfer() {
@@ -203,39 +188,53 @@ public class OperationController {
             return;
         }
 
-        var recipientAccount = accountStorage.loadByAccountNumber(Long.parseLong(recipientAccountNumber));
-        if (recipientAccount == null) {
+        long accountNumber;
+        try {
+            accountNumber = Long.parseLong(recipientAccountNumber.trim());
+        } catch (NumberFormatException e) {
             view.showError("Клиент с указанным номером счета не найден.");
             return;
         }
 
-        var amountStr = JOptionPane.showInputDialog(view, "Введите сумму перевода:");
-        if (amountStr == null || amountStr.isBlank()) return;
-
-        var amount = parseAmount(amountStr);
-        if (amount < 0) return;
-
-        var senderAccount = accountStorage.loadByUserId(view.getUserID());
-        if (amount > senderAccount.getBalance()) {
-            view.showError("Недостаточно средств на счете.");
-            return;
-        }
-
-        senderAccount.setBalance(senderAccount.getBalance() - amount);
-        recipientAccount.setBalance(recipientAccount.getBalance() + amount);
+        StorageExecutor.submit(() -> walletService.findRecipient(accountNumber), recipient -> {
+            if (!recipient.isSuccess()) {
+                view.showError(recipient.message());
+                return;
+            }
 
-        accountStorage.update(senderAccount);
-        accountStorage.update(recipientAccount);
+            var amountStr = JOptionPane.showInputDialog(view, "Введите сумму перевода:");
+            if (amountStr == null || amountStr.isBlank()) return;
 
-        var date = getCurrentDateTime();
-        var transferCategoryId = getOrCreateTransferCategory();
+            var amount = parseAmount(amountStr);
+            if (amount < 0) return;
 
-        var senderOperation = new Operation(UUID.randomUUID(), senderAccount.getId(), transferCategoryId, "Расход", amount, date);
-        operationStorage.save(senderOperation);
+            StorageExecutor.submit(() -> walletService.transfer(view.getUserID(), accountNumber, amount), result -> {
+                if (!result.isSuccess()) {
+                    view.showError(result.message());
+                }
+            });
+        });
+    }
 
-        var recipientOperation = new Operation(UUID.randomUUID(), recipientAccount.getId(), transferCategoryId, "Доход", amount, date);
-        operationStorage.save(recipientOperation);
+    public void importOperations(Path file) {
+        StorageExecutor.submit(() -> walletService.importOperations(view.getUserID(), file), result -> {
+            if (result.failed()) {
+                view.showError("Импорт завершился с ошибкой. Импортировано операций: " + result.imported());
+            } else {
+                view.showMessage("Импортировано операций: " + result.imported() + ", пропущено строк: " + result.skipped());
+            }
+            view.requestRefresh();
+            loadCategories();
+        });
+    }
 
-        view.loadOperations();
+    public void exportOperations(Path file) {
+        StorageExecutor.submit(() -> walletService.exportOperations(view.getUserID(), file), written -> {
+            if (written < 0) {
+                view.showError("Не удалось выполнить экспорт.");
+            } else {
+                view.showMessage("Экспортировано операций: " + written);
+            }
+        });
     }
 }
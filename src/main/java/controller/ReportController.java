@@ -0,0 +1,70 @@
+package controller;
+
+import model.PeriodTotal;
+import service.WalletService;
+import utils.RefreshScheduler;
+import utils.StorageExecutor;
+import view.components.ReportPanel;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public class ReportController {
+    private final ReportPanel view;
+    private final WalletService walletService;
+    private final RefreshScheduler refreshScheduler;
+
+    public ReportController(WalletService walletService, ReportPanel view) {
+        this.walletService = walletService;
+        this.view = view;
+        this.refreshScheduler = new RefreshScheduler("report", this::loadReport);
+        view.getRangeComboBox().addActionListener(e -> updateReport());
+    }
+
+    public void updateReport() {
+        refreshScheduler.requestRefresh();
+    }
+
+    private void loadReport() {
+        var selectedRange = view.getSelectedRange();
+        StorageExecutor.submit(() -> loadTotals(selectedRange), view::setTotals);
+    }
+
+    private List<PeriodTotal> loadTotals(String selectedRange) {
+        if (ReportPanel.LAST_30_DAYS.equals(selectedRange)) {
+            var to = LocalDate.now();
+            var from = to.minusDays(29);
+            var totals = walletService.getDailyTotals(view.getUserId(), from, to);
+            var periods = new ArrayList<String>();
+            for (var day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                periods.add(day.toString());
+            }
+            return fillGaps(periods, totals);
+        }
+
+        var months = ReportPanel.LAST_5_YEARS.equals(selectedRange) ? 60 : 12;
+        var to = YearMonth.now();
+        var from = to.minusMonths(months - 1);
+        var totals = walletService.getMonthlyTotals(view.getUserId(), from, to);
+        var periods = new ArrayList<String>();
+        for (var month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            periods.add(month.toString());
+        }
+        return fillGaps(periods, totals);
+    }
+
+    private List<PeriodTotal> fillGaps(List<String> periods, List<PeriodTotal> totals) {
+        var byPeriod = new HashMap<String, PeriodTotal>();
+        for (var total : totals) {
+            byPeriod.put(total.period(), total);
+        }
+        var filled = new ArrayList<PeriodTotal>(periods.size());
+        for (var period : periods) {
+            filled.add(byPeriod.getOrDefault(period, new PeriodTotal(period, null, 0, 0)));
+        }
+        return filled;
+    }
+}
@@ -6,13 +6,19 @@ public class Account {
     private final UUID id;
     private final long accountNumber;
     private final UUID userId;
-    private double balance;
+    private long balance;
+    private long version;
 
-    public Account(UUID id, UUID userId, long accountNumber, double balance) {
+    public Account(UUID id, UUID userId, long accountNumber, long balance) {
+        this(id, userId, accountNumber, balance, 0);
+    }
+
+    public Account(UUID id, UUID userId, long accountNumber, long balance, long version) {
         this.id = id;
         this.accountNumber = accountNumber;
         this.userId = userId;
         this.balance = balance;
+        this.version = version;
     }
 
     public UUID getId() {
@@ -23,7 +29,7 @@ public class Account {
         return userId;
     }
 
-    public double getBalance() {
+    public long getBalance() {
         return balance;
     }
 
@@ -31,7 +37,15 @@ public class Account {
         return accountNumber;
     }
 
-    public void setBalance(double balance) {
+    public long getVersion() {
+        return version;
+    }
+
+    public void setBalance(long balance) {
         this.balance = balance;
     }
-}
\ No newline at end of file
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,6 @@
+package model;
+
+import java.util.UUID;
+
+public record AccountBalanceChanged(UUID accountId, long balance) implements ChangeEvent {
+}
@@ -6,9 +6,9 @@ public class Category {
     private final UUID id;
     private final UUID userId;
     private final String name;
-    private double limit;
+    private long limit;
 
-    public Category(UUID id, UUID userId, String name, double limit) {
+    public Category(UUID id, UUID userId, String name, long limit) {
         this.id = id;
         this.userId = userId;
         this.name = name;
@@ -27,15 +27,15 @@ public class Category {
         return name;
     }
 
-    public double getLimit() {
+    public long getLimit() {
         return limit;
     }
 
-    public void setLimit(double limit) {
+    public void setLimit(long limit) {
         this.limit = limit;
     }
 
-    public double getRemaining(double spentAmount) {
+    public long getRemaining(long spentAmount) {
         return limit - spentAmount;
     }
 }
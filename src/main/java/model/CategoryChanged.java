@@ -0,0 +1,18 @@
+package model;
+
+import java.util.UUID;
+
+public record CategoryChanged(UUID categoryId, Category category) implements ChangeEvent {
+    public static CategoryChanged saved(Category category) {
+        return new CategoryChanged(category.getId(),
+                new Category(category.getId(), category.getUserId(), category.getName(), category.getLimit()));
+    }
+
+    public static CategoryChanged deleted(UUID categoryId) {
+        return new CategoryChanged(categoryId, null);
+    }
+
+    public boolean isDeleted() {
+        return category == null;
+    }
+}
@@ -0,0 +1,4 @@
+package model;
+
+public sealed interface ChangeEvent permits OperationAdded, AccountBalanceChanged, CategoryChanged {
+}
@@ -0,0 +1,58 @@
+package model;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum DatePeriod {
+    ALL("За всё время"),
+    LAST_7_DAYS("Последние 7 дней"),
+    LAST_30_DAYS("Последние 30 дней"),
+    THIS_MONTH("Текущий месяц"),
+    LAST_MONTH("Прошлый месяц"),
+    THIS_YEAR("Текущий год");
+
+    private final String label;
+
+    DatePeriod(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Instant getFrom(ZonedDateTime now) {
+        var startOfDay = now.truncatedTo(ChronoUnit.DAYS);
+        return switch (this) {
+            case ALL -> null;
+            case LAST_7_DAYS -> startOfDay.minusDays(6).toInstant();
+            case LAST_30_DAYS -> startOfDay.minusDays(29).toInstant();
+            case THIS_MONTH -> startOfDay.withDayOfMonth(1).toInstant();
+            case LAST_MONTH -> startOfDay.withDayOfMonth(1).minusMonths(1).toInstant();
+            case THIS_YEAR -> startOfDay.withDayOfYear(1).toInstant();
+        };
+    }
+
+    public Instant getTo(ZonedDateTime now) {
+        return switch (this) {
+            case ALL -> null;
+            case LAST_MONTH -> now.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).toInstant();
+            default -> now.truncatedTo(ChronoUnit.DAYS).plusDays(1).toInstant();
+        };
+    }
+
+    public static DatePeriod fromLabel(String label) {
+        for (var period : values()) {
+            if (period.label.equals(label)) {
+                return period;
+            }
+        }
+        return ALL;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -1,6 +1,7 @@
 package model;
 
+import java.time.Instant;
 import java.util.UUID;
 
-public record Operation(UUID id, UUID accountId, UUID categoryId, String type, double amount, String date) {
+public record Operation(UUID id, UUID accountId, UUID categoryId, OperationType type, long amount, Instant date, String note) {
 }
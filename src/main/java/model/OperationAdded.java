@@ -0,0 +1,4 @@
+package model;
+
+public record OperationAdded(Operation operation) implements ChangeEvent {
+}
@@ -0,0 +1,4 @@
+package model;
+
+public record OperationEntry(Operation operation, String categoryName) {
+}
@@ -0,0 +1,6 @@
+package model;
+
+import java.util.UUID;
+
+public record OperationSum(OperationType type, UUID categoryId, long total) {
+}
@@ -0,0 +1,45 @@
+package model;
+
+public enum OperationType {
+    INCOME(0, "Доход"),
+    EXPENSE(1, "Расход");
+
+    private final int code;
+    private final String label;
+
+    OperationType(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static OperationType fromCode(int code) {
+        for (var type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation type code: " + code);
+    }
+
+    public static OperationType fromLabel(String label) {
+        for (var type : values()) {
+            if (type.label.equals(label)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
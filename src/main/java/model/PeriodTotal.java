@@ -0,0 +1,6 @@
+package model;
+
+import java.util.UUID;
+
+public record PeriodTotal(String period, UUID categoryId, long income, long expense) {
+}
@@ -0,0 +1,14 @@
+package model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record TransferLogEntry(UUID id, int senderShard, UUID senderAccountId, UUID debitOperationId,
+                               int recipientShard, UUID recipientAccountId, UUID creditOperationId,
+                               UUID categoryId, UUID recipientCategoryId, long amount, Instant date,
+                               TransferState state) {
+    public TransferLogEntry withState(TransferState newState) {
+        return new TransferLogEntry(id, senderShard, senderAccountId, debitOperationId, recipientShard,
+                recipientAccountId, creditOperationId, categoryId, recipientCategoryId, amount, date, newState);
+    }
+}
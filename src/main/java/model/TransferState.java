@@ -0,0 +1,9 @@
+package model;
+
+public enum TransferState {
+    PREPARED,
+    DEBITED,
+    COMMITTED,
+    ABORTED,
+    COMPENSATED
+}
@@ -0,0 +1,209 @@
+package service;
+
+import model.AccountBalanceChanged;
+import model.Operation;
+import model.OperationAdded;
+import model.OperationType;
+import model.TransferLogEntry;
+import model.TransferState;
+import storage.AccountStorage;
+import storage.OperationStorage;
+import storage.ShardRouter;
+import storage.TransferLogStorage;
+import utils.EventBus;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class CrossShardTransferService {
+    private static final Logger logger = Logger.getLogger(CrossShardTransferService.class.getName());
+    private final ShardRouter shardRouter;
+    private final IntFunction<AccountStorage> accountStorages;
+    private final TransferLogStorage transferLogStorage;
+
+    public CrossShardTransferService(ShardRouter shardRouter) {
+        this(shardRouter, shard -> new AccountStorage(shardRouter.forShard(shard)));
+    }
+
+    public CrossShardTransferService(ShardRouter shardRouter, IntFunction<AccountStorage> accountStorages) {
+        this.shardRouter = shardRouter;
+        this.accountStorages = accountStorages;
+        this.transferLogStorage = new TransferLogStorage(shardRouter.getDirectory());
+    }
+
+    public TransferResult transfer(int senderShard, UUID senderAccountId, int recipientShard, UUID recipientAccountId,
+                                   long amount, UUID categoryId, UUID recipientCategoryId, Instant date) {
+        var entry = new TransferLogEntry(UUID.randomUUID(), senderShard, senderAccountId, UUID.randomUUID(),
+                recipientShard, recipientAccountId, UUID.randomUUID(), categoryId, recipientCategoryId, amount, date,
+                TransferState.PREPARED);
+        if (!transferLogStorage.save(entry)) {
+            return TransferResult.FAILED;
+        }
+
+        try {
+            if (!debit(entry)) {
+                transferLogStorage.updateState(entry.id(), TransferState.ABORTED);
+                return TransferResult.INSUFFICIENT_FUNDS;
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error debiting sender in cross-shard transfer " + entry.id(), e);
+            transferLogStorage.updateState(entry.id(), TransferState.ABORTED);
+            return TransferResult.FAILED;
+        }
+        transferLogStorage.updateState(entry.id(), TransferState.DEBITED);
+        var state = completeCredit(entry);
+        if (state != TransferState.COMMITTED) {
+            return TransferResult.FAILED;
+        }
+        publish(entry.senderShard(), debitOperation(entry));
+        publish(entry.recipientShard(), creditOperation(entry));
+        return TransferResult.COMPLETED;
+    }
+
+    public RecoveryReport recover() {
+        var committed = 0;
+        var aborted = 0;
+        var compensated = 0;
+        var pending = 0;
+        for (var entry : transferLogStorage.loadPending()) {
+            switch (recover(entry)) {
+                case COMMITTED -> committed++;
+                case ABORTED -> aborted++;
+                case COMPENSATED -> compensated++;
+                default -> pending++;
+            }
+        }
+        var report = new RecoveryReport(committed, aborted, compensated, pending);
+        if (report.total() > 0) {
+            logger.log(Level.INFO, "Recovered cross-shard transfers: " + report);
+        }
+        return report;
+    }
+
+    private TransferState recover(TransferLogEntry entry) {
+        try {
+            if (!debitApplied(entry)) {
+                var state = entry.state() == TransferState.PREPARED ? TransferState.ABORTED : TransferState.COMPENSATED;
+                return transferLogStorage.updateState(entry.id(), state) ? state : entry.state();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error recovering cross-shard transfer " + entry.id(), e);
+            return entry.state();
+        }
+        if (entry.state() == TransferState.PREPARED) {
+            transferLogStorage.updateState(entry.id(), TransferState.DEBITED);
+        }
+        return completeCredit(entry);
+    }
+
+    private TransferState completeCredit(TransferLogEntry entry) {
+        try {
+            if (credit(entry)) {
+                if (!transferLogStorage.updateState(entry.id(), TransferState.COMMITTED)) {
+                    logger.log(Level.WARNING, "Cross-shard transfer " + entry.id() + " credited but not marked committed");
+                }
+                return TransferState.COMMITTED;
+            }
+            logger.log(Level.WARNING, "Recipient account missing for cross-shard transfer " + entry.id());
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error crediting recipient in cross-shard transfer " + entry.id(), e);
+            if (!creditMissing(entry)) {
+                return TransferState.DEBITED;
+            }
+        }
+        return compensate(entry) ? TransferState.COMPENSATED : TransferState.DEBITED;
+    }
+
+    private boolean debit(TransferLogEntry entry) throws SQLException {
+        var database = shardRouter.forShard(entry.senderShard());
+        var accountStorage = accountStorages.apply(entry.senderShard());
+        var operationStorage = new OperationStorage(database);
+        return database.inTransaction(connection -> {
+            if (operationStorage.exists(connection, entry.debitOperationId())) {
+                return true;
+            }
+            if (!accountStorage.withdraw(connection, entry.senderAccountId(), entry.amount())) {
+                return false;
+            }
+            operationStorage.save(connection, debitOperation(entry));
+            return true;
+        });
+    }
+
+    private boolean debitApplied(TransferLogEntry entry) throws SQLException {
+        var database = shardRouter.forShard(entry.senderShard());
+        var operationStorage = new OperationStorage(database);
+        try (var connection = database.getConnection()) {
+            return operationStorage.exists(connection, entry.debitOperationId());
+        }
+    }
+
+    private boolean creditMissing(TransferLogEntry entry) {
+        var database = shardRouter.forShard(entry.recipientShard());
+        var operationStorage = new OperationStorage(database);
+        try (var connection = database.getConnection()) {
+            return !operationStorage.exists(connection, entry.creditOperationId());
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error checking credit of cross-shard transfer " + entry.id(), e);
+            return false;
+        }
+    }
+
+    private boolean credit(TransferLogEntry entry) throws SQLException {
+        var database = shardRouter.forShard(entry.recipientShard());
+        var accountStorage = accountStorages.apply(entry.recipientShard());
+        var operationStorage = new OperationStorage(database);
+        return database.inTransaction(connection -> {
+            if (operationStorage.exists(connection, entry.creditOperationId())) {
+                return true;
+            }
+            if (!accountStorage.deposit(connection, entry.recipientAccountId(), entry.amount())) {
+                return false;
+            }
+            operationStorage.save(connection, creditOperation(entry));
+            return true;
+        });
+    }
+
+    private Operation debitOperation(TransferLogEntry entry) {
+        return new Operation(entry.debitOperationId(), entry.senderAccountId(), entry.categoryId(),
+                OperationType.EXPENSE, entry.amount(), entry.date(), null);
+    }
+
+    private Operation creditOperation(TransferLogEntry entry) {
+        return new Operation(entry.creditOperationId(), entry.recipientAccountId(), entry.recipientCategoryId(),
+                OperationType.INCOME, entry.amount(), entry.date(), null);
+    }
+
+    private void publish(int shard, Operation operation) {
+        var eventBus = EventBus.getInstance();
+        eventBus.publish(new OperationAdded(operation));
+        var account = accountStorages.apply(shard).load(operation.accountId());
+        if (account != null) {
+            eventBus.publish(new AccountBalanceChanged(account.getId(), account.getBalance()));
+        }
+    }
+
+    private boolean compensate(TransferLogEntry entry) {
+        var database = shardRouter.forShard(entry.senderShard());
+        var accountStorage = accountStorages.apply(entry.senderShard());
+        var operationStorage = new OperationStorage(database);
+        try {
+            database.inTransaction(connection -> {
+                if (operationStorage.delete(connection, entry.debitOperationId())) {
+                    accountStorage.deposit(connection, entry.senderAccountId(), entry.amount());
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error compensating cross-shard transfer " + entry.id(), e);
+            return false;
+        }
+        transferLogStorage.updateState(entry.id(), TransferState.COMPENSATED);
+        return true;
+    }
+}
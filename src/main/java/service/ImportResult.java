@@ -0,0 +1,4 @@
+package service;
+
+public record ImportResult(int imported, int skipped, boolean failed) {
+}
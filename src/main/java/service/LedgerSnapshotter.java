@@ -0,0 +1,37 @@
+package service;
+
+import storage.LedgerStorage;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class LedgerSnapshotter {
+    private static final Logger logger = Logger.getLogger(LedgerSnapshotter.class.getName());
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("ledger-snapshotter").daemon().factory());
+    private final LedgerStorage ledgerStorage;
+
+    public LedgerSnapshotter(LedgerStorage ledgerStorage) {
+        this.ledgerStorage = ledgerStorage;
+    }
+
+    public void start(long intervalMillis) {
+        scheduler.scheduleWithFixedDelay(this::snapshot, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void snapshot() {
+        try {
+            var accounts = ledgerStorage.snapshot();
+            logger.log(Level.FINE, "Ledger snapshot updated " + accounts + " accounts");
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Error running ledger snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package service;
+
+import model.OperationEntry;
+import storage.OperationStorage;
+import utils.CsvLine;
+import utils.DateFormatter;
+import utils.Json;
+import utils.MoneyFormatter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class OperationExporter {
+    private static final Logger logger = Logger.getLogger(OperationExporter.class.getName());
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final OperationStorage operationStorage;
+
+    public OperationExporter(OperationStorage operationStorage) {
+        this.operationStorage = operationStorage;
+    }
+
+    public long exportFile(Path file, UUID accountId) {
+        var name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        var jsonArray = name.endsWith(".json");
+        var jsonLines = name.endsWith(".jsonl");
+        var written = new long[1];
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             var writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            if (jsonArray) {
+                writer.write('[');
+            } else if (!jsonLines) {
+                writer.write("date,type,category,amount,note");
+                writer.newLine();
+            }
+
+            var completed = operationStorage.forEachByAccountId(accountId, entry -> {
+                try {
+                    if (jsonArray && written[0] > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(jsonArray || jsonLines ? toJson(entry) : toCsv(entry));
+                    if (!jsonArray) {
+                        writer.newLine();
+                    }
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (jsonArray) {
+                writer.write(']');
+            }
+            return completed ? written[0] : -1;
+        } catch (IOException | UncheckedIOException e) {
+            logger.log(Level.SEVERE, "Error exporting operations", e);
+            return -1;
+        }
+    }
+
+    private String toCsv(OperationEntry entry) {
+        var operation = entry.operation();
+        return CsvLine.escape(DateFormatter.format(operation.date())) + ',' +
+                CsvLine.escape(operation.type().getLabel()) + ',' +
+                CsvLine.escape(entry.categoryName()) + ',' +
+                MoneyFormatter.format(operation.amount()) + ',' +
+                CsvLine.escape(operation.note());
+    }
+
+    private String toJson(OperationEntry entry) {
+        var operation = entry.operation();
+        var object = new LinkedHashMap<String, Object>();
+        object.put("id", operation.id().toString());
+        object.put("date", DateFormatter.format(operation.date()));
+        object.put("type", operation.type().getLabel());
+        object.put("category", entry.categoryName());
+        object.put("amount", MoneyFormatter.format(operation.amount()));
+        object.put("note", operation.note());
+        return Json.write(object);
+    }
+}
@@ -0,0 +1,198 @@
+package service;
+
+import model.Category;
+import model.Operation;
+import model.OperationType;
+import storage.AccountStorage;
+import storage.CategoryStorage;
+import storage.OperationStorage;
+import utils.CsvLine;
+import utils.DatabaseConnection;
+import utils.DateFormatter;
+import utils.Json;
+import utils.JsonArrayReader;
+import utils.MoneyFormatter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class OperationImporter {
+    private static final Logger logger = Logger.getLogger(OperationImporter.class.getName());
+    private final DatabaseConnection databaseConnection;
+    private static final int CHUNK_SIZE = 5_000;
+    private final AccountStorage accountStorage;
+    private final OperationStorage operationStorage;
+    private final CategoryStorage categoryStorage;
+
+    public OperationImporter(DatabaseConnection databaseConnection, AccountStorage accountStorage, OperationStorage operationStorage, CategoryStorage categoryStorage) {
+        this.databaseConnection = databaseConnection;
+        this.accountStorage = accountStorage;
+        this.operationStorage = operationStorage;
+        this.categoryStorage = categoryStorage;
+    }
+
+    public ImportResult importFile(Path file, UUID userId, UUID accountId) {
+        var json = isJson(file);
+        var categoryIds = new HashMap<String, UUID>();
+        for (var category : categoryStorage.loadAllByUserId(userId)) {
+            categoryIds.put(category.getName(), category.getId());
+        }
+
+        var imported = 0;
+        var skipped = 0;
+        var failed = false;
+        var chunk = new ArrayList<Operation>(CHUNK_SIZE);
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            var records = json ? openJson(reader) : openCsv(reader);
+            var recordNumber = 0;
+            String record;
+            while ((record = records.next()) != null) {
+                recordNumber++;
+                if (record.isBlank()) continue;
+                try {
+                    var row = json ? fromJson(record) : fromCsv(record);
+                    var categoryId = resolveCategory(row.categoryName(), userId, categoryIds);
+                    chunk.add(new Operation(UUID.randomUUID(), accountId, categoryId, row.type(), row.amount(), row.date(), row.note()));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    skipped++;
+                    logger.log(Level.WARNING, "Skipping record " + recordNumber + " of " + file + ": " + e.getMessage());
+                    continue;
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    imported += writeChunk(chunk);
+                    chunk.clear();
+                }
+            }
+            imported += writeChunk(chunk);
+        } catch (IOException | SQLException e) {
+            logger.log(Level.SEVERE, "Error importing operations", e);
+            failed = true;
+        }
+
+        try {
+            databaseConnection.inTransaction(connection -> {
+                accountStorage.recomputeBalance(connection, accountId);
+                return null;
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error recomputing balance after import", e);
+            failed = true;
+        }
+        return new ImportResult(imported, skipped, failed);
+    }
+
+    private int writeChunk(List<Operation> chunk) throws SQLException {
+        if (chunk.isEmpty()) return 0;
+        databaseConnection.inTransaction(connection -> {
+            operationStorage.saveBatch(connection, chunk);
+            return null;
+        });
+        return chunk.size();
+    }
+
+    private UUID resolveCategory(String name, UUID userId, Map<String, UUID> categoryIds) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        var trimmed = name.trim();
+        return categoryIds.computeIfAbsent(trimmed, missing -> {
+            var category = new Category(UUID.randomUUID(), userId, missing, Long.MAX_VALUE);
+            if (categoryStorage.trySave(category)) {
+                return category.getId();
+            }
+            var existing = categoryStorage.loadByUserIdAndName(userId, missing);
+            return existing != null ? existing.getId() : null;
+        });
+    }
+
+    private RecordReader openCsv(BufferedReader reader) throws IOException {
+        reader.mark(1024);
+        var header = reader.readLine();
+        if (header != null && !header.toLowerCase(Locale.ROOT).startsWith("date")) {
+            reader.reset();
+        }
+        return () -> CsvLine.readRecord(reader);
+    }
+
+    private RecordReader openJson(BufferedReader reader) throws IOException {
+        reader.mark(1024);
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        reader.reset();
+        if (c == '[') {
+            return new JsonArrayReader(reader)::next;
+        }
+        return reader::readLine;
+    }
+
+    private boolean isJson(Path file) {
+        var name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jsonl") || name.endsWith(".json");
+    }
+
+    private ImportedRow fromCsv(String record) {
+        var fields = CsvLine.split(record);
+        if (fields.size() < 4) {
+            throw new IllegalArgumentException("Expected 4 fields but got " + fields.size());
+        }
+        return toRow(fields.get(0), fields.get(1), fields.get(2), fields.get(3), fields.size() > 4 ? fields.get(4) : null);
+    }
+
+    private ImportedRow fromJson(String record) {
+        var object = Json.parseObject(record);
+        return toRow(asText(object.get("date")), asText(object.get("type")),
+                asText(object.get("category")), asText(object.get("amount")), asText(object.get("note")));
+    }
+
+    private ImportedRow toRow(String date, String type, String categoryName, String amount, String note) {
+        if (date == null || type == null || amount == null) {
+            throw new IllegalArgumentException("Missing required field");
+        }
+        var parsedDate = DateFormatter.parse(date);
+        var operationType = parseType(type.trim());
+        var parsedAmount = MoneyFormatter.parse(amount.trim());
+        if (parsedAmount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + amount);
+        }
+        return new ImportedRow(parsedDate, operationType, categoryName, parsedAmount, note == null || note.isBlank() ? null : note.trim());
+    }
+
+    private OperationType parseType(String type) {
+        var operationType = OperationType.fromLabel(type);
+        if (operationType != null) {
+            return operationType;
+        }
+        return OperationType.valueOf(type.toUpperCase(Locale.ROOT));
+    }
+
+    private String asText(Object value) {
+        if (value == null) return null;
+        if (value instanceof BigDecimal number) return number.toPlainString();
+        return value.toString();
+    }
+
+    @FunctionalInterface
+    private interface RecordReader {
+        String next() throws IOException;
+    }
+
+    private record ImportedRow(Instant date, OperationType type, String categoryName, long amount, String note) {
+    }
+}
@@ -0,0 +1,62 @@
+package service;
+
+import model.Account;
+import model.AccountBalanceChanged;
+import model.Operation;
+import model.OperationAdded;
+import model.OperationType;
+import storage.AccountStorage;
+import storage.LedgerAccountStorage;
+import storage.OperationStorage;
+import utils.DatabaseConnection;
+import utils.EventBus;
+
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class OperationRecorder {
+    private static final Logger logger = Logger.getLogger(OperationRecorder.class.getName());
+    private final DatabaseConnection databaseConnection;
+    private final AccountStorage accountStorage;
+    private final OperationStorage operationStorage;
+
+    public OperationRecorder(DatabaseConnection databaseConnection, AccountStorage accountStorage, OperationStorage operationStorage) {
+        this.databaseConnection = databaseConnection;
+        this.accountStorage = accountStorage;
+        this.operationStorage = operationStorage;
+    }
+
+    public RecordResult record(Account account, Operation operation, long newBalance) {
+        var expectedVersion = account.getVersion();
+        var updated = new Account(account.getId(), account.getUserId(), account.getAccountNumber(), newBalance, expectedVersion);
+        try {
+            var result = databaseConnection.inTransaction(connection -> {
+                if (operation.type() == OperationType.EXPENSE && accountStorage instanceof LedgerAccountStorage ledger
+                        && !ledger.hasFunds(connection, account.getId(), operation.amount())) {
+                    return RecordResult.INSUFFICIENT_FUNDS;
+                }
+                if (!accountStorage.tryUpdate(connection, updated)) {
+                    return RecordResult.CONFLICT;
+                }
+                operationStorage.save(connection, operation);
+                return RecordResult.COMPLETED;
+            });
+            if (result == RecordResult.COMPLETED) {
+                account.setBalance(newBalance);
+                account.setVersion(updated.getVersion());
+                var eventBus = EventBus.getInstance();
+                eventBus.publish(new OperationAdded(operation));
+                eventBus.publish(new AccountBalanceChanged(account.getId(), newBalance));
+            }
+            return result;
+        } catch (SQLException e) {
+            if (DatabaseConnection.isBusy(e)) {
+                logger.log(Level.WARNING, "Database busy while recording operation, will retry", e);
+                return RecordResult.CONFLICT;
+            }
+            logger.log(Level.SEVERE, "Error recording operation", e);
+            return RecordResult.FAILED;
+        }
+    }
+}
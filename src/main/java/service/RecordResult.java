@@ -0,0 +1,8 @@
+package service;
+
+public enum RecordResult {
+    COMPLETED,
+    CONFLICT,
+    INSUFFICIENT_FUNDS,
+    FAILED
+}
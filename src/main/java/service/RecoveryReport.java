@@ -0,0 +1,7 @@
+package service;
+
+public record RecoveryReport(int committed, int aborted, int compensated, int pending) {
+    public int total() {
+        return committed + aborted + compensated + pending;
+    }
+}
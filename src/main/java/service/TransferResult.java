@@ -0,0 +1,7 @@
+package service;
+
+public enum TransferResult {
+    COMPLETED,
+    INSUFFICIENT_FUNDS,
+    FAILED
+}
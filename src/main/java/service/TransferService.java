@@ -0,0 +1,68 @@
+package service;
+
+import model.AccountBalanceChanged;
+import model.Operation;
+import model.OperationAdded;
+import model.OperationType;
+import storage.AccountStorage;
+import storage.OperationStorage;
+import utils.DatabaseConnection;
+import utils.EventBus;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class TransferService {
+    private static final Logger logger = Logger.getLogger(TransferService.class.getName());
+    private final DatabaseConnection databaseConnection;
+    private final AccountStorage accountStorage;
+    private final OperationStorage operationStorage;
+
+    public TransferService(DatabaseConnection databaseConnection, AccountStorage accountStorage, OperationStorage operationStorage) {
+        this.databaseConnection = databaseConnection;
+        this.accountStorage = accountStorage;
+        this.operationStorage = operationStorage;
+    }
+
+    public TransferResult transfer(UUID senderAccountId, UUID recipientAccountId, long amount, UUID categoryId, Instant date) {
+        try {
+            var result = databaseConnection.inTransaction(connection -> {
+                if (!accountStorage.withdraw(connection, senderAccountId, amount)) {
+                    return null;
+                }
+                if (!accountStorage.deposit(connection, recipientAccountId, amount)) {
+                    throw new SQLException("Recipient account not found: " + recipientAccountId);
+                }
+                var debit = new Operation(UUID.randomUUID(), senderAccountId, categoryId, OperationType.EXPENSE, amount, date, null);
+                var credit = new Operation(UUID.randomUUID(), recipientAccountId, categoryId, OperationType.INCOME, amount, date, null);
+                operationStorage.save(connection, debit);
+                operationStorage.save(connection, credit);
+                return new Transfer(debit, credit);
+            });
+            if (result == null) {
+                return TransferResult.INSUFFICIENT_FUNDS;
+            }
+            publish(result.debit());
+            publish(result.credit());
+            return TransferResult.COMPLETED;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error transferring funds", e);
+            return TransferResult.FAILED;
+        }
+    }
+
+    private void publish(Operation operation) {
+        var eventBus = EventBus.getInstance();
+        eventBus.publish(new OperationAdded(operation));
+        var account = accountStorage.load(operation.accountId());
+        if (account != null) {
+            eventBus.publish(new AccountBalanceChanged(account.getId(), account.getBalance()));
+        }
+    }
+
+    private record Transfer(Operation debit, Operation credit) {
+    }
+}
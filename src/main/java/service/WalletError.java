@@ -0,0 +1,30 @@
+package service;
+
+public enum WalletError {
+    EMPTY_USERNAME("Введите логин"),
+    EMPTY_PASSWORD("Введите пароль"),
+    PASSWORD_MISMATCH("Пароли не сходятся"),
+    USERNAME_TAKEN("Логин уже занят"),
+    INVALID_CREDENTIALS("Неверный логин или пароль"),
+    ACCOUNT_NOT_FOUND("Счет не найден."),
+    RECIPIENT_NOT_FOUND("Клиент с указанным номером счета не найден."),
+    INVALID_AMOUNT("Сумма должна быть больше 0."),
+    INSUFFICIENT_FUNDS("Недостаточно средств на счете."),
+    CATEGORY_LIMIT_EXCEEDED("Лимит по категории исчерпан."),
+    EMPTY_CATEGORY_NAME("Введите имя категории."),
+    INVALID_LIMIT("Введите корректное неотрицательное число для лимита."),
+    CATEGORY_EXISTS("Категория с таким именем уже существует."),
+    CATEGORY_NOT_FOUND("Категория не найдена."),
+    CONFLICT("Счет был изменен одновременно с другой операцией. Повторите попытку."),
+    FAILED("Не удалось выполнить операцию.");
+
+    private final String message;
+
+    WalletError(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
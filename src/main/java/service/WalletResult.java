@@ -0,0 +1,19 @@
+package service;
+
+public record WalletResult<T>(T value, WalletError error, String message) {
+    public static <T> WalletResult<T> ok(T value) {
+        return new WalletResult<>(value, null, null);
+    }
+
+    public static <T> WalletResult<T> failure(WalletError error) {
+        return new WalletResult<>(null, error, error.getMessage());
+    }
+
+    public static <T> WalletResult<T> failure(WalletError error, String message) {
+        return new WalletResult<>(null, error, message);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
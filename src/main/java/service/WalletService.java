@@ -0,0 +1,372 @@
+package service;
+
+import model.Account;
+import model.Category;
+import model.Operation;
+import model.OperationEntry;
+import model.OperationType;
+import model.PeriodTotal;
+import model.User;
+import storage.AccountDirectory;
+import storage.AccountStorage;
+import storage.CachedAccountStorage;
+import storage.CachedCategoryStorage;
+import storage.CategorySpendingStorage;
+import storage.CategoryStorage;
+import storage.LedgerAccountStorage;
+import storage.LedgerStorage;
+import storage.OperationCursor;
+import storage.OperationFilter;
+import storage.OperationStorage;
+import storage.RollupStorage;
+import storage.ShardRouter;
+import storage.UserStorage;
+import utils.AccountNumberGenerator;
+import utils.DatabaseConnection;
+import utils.MoneyFormatter;
+import utils.RetryPolicy;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class WalletService {
+    private static final Logger logger = Logger.getLogger(WalletService.class.getName());
+    private static final String TRANSFER_CATEGORY = "Перевод";
+    private final ShardRouter shardRouter;
+    private final UserStorage userStorage;
+    private final List<Shard> shards;
+    private final AccountDirectory accountDirectory;
+    private final CrossShardTransferService crossShardTransferService;
+    private final RetryPolicy retryPolicy;
+
+    public WalletService() {
+        this(ShardRouter.getInstance(), new UserStorage());
+    }
+
+    public WalletService(ShardRouter shardRouter, UserStorage userStorage) {
+        this.shardRouter = shardRouter;
+        this.userStorage = userStorage;
+        var shards = new ArrayList<Shard>(shardRouter.getShardCount());
+        for (var shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shards.add(Shard.open(shardRouter.forShard(shard)));
+        }
+        this.shards = List.copyOf(shards);
+        this.accountDirectory = new AccountDirectory(shardRouter);
+        this.crossShardTransferService = new CrossShardTransferService(shardRouter,
+                shard -> this.shards.get(shard).accountStorage());
+        this.retryPolicy = RetryPolicy.defaultPolicy();
+    }
+
+    public WalletResult<User> register(String username, String password, String confirmPassword) {
+        if (isBlank(username)) {
+            return WalletResult.failure(WalletError.EMPTY_USERNAME);
+        }
+        if (isBlank(password)) {
+            return WalletResult.failure(WalletError.EMPTY_PASSWORD);
+        }
+        if (!password.equals(confirmPassword)) {
+            return WalletResult.failure(WalletError.PASSWORD_MISMATCH);
+        }
+        if (userStorage.loadByUsername(username) != null) {
+            return WalletResult.failure(WalletError.USERNAME_TAKEN);
+        }
+
+        var user = new User(UUID.randomUUID(), username, password);
+        var account = new Account(UUID.randomUUID(), user.id(), AccountNumberGenerator.generateAccountNumber(user.id()), 0);
+        var accountStorage = shardOf(user.id()).accountStorage();
+        var userDatabase = userStorage.getDatabaseConnection();
+        var accountDatabase = accountStorage.getDatabaseConnection();
+        try {
+            userDatabase.inTransaction(connection -> {
+                userStorage.save(connection, user);
+                if (accountDatabase == userDatabase) {
+                    accountStorage.save(connection, account);
+                } else {
+                    accountDatabase.inTransaction(accountConnection -> {
+                        accountStorage.save(accountConnection, account);
+                        return null;
+                    });
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            if (userStorage.loadByUsername(username) != null) {
+                return WalletResult.failure(WalletError.USERNAME_TAKEN);
+            }
+            logger.log(Level.SEVERE, "Error registering user", e);
+            return WalletResult.failure(WalletError.FAILED);
+        }
+        return WalletResult.ok(user);
+    }
+
+    public WalletResult<User> login(String username, String password) {
+        if (isBlank(username)) {
+            return WalletResult.failure(WalletError.EMPTY_USERNAME);
+        }
+        if (isBlank(password)) {
+            return WalletResult.failure(WalletError.EMPTY_PASSWORD);
+        }
+        var user = userStorage.loadByUsername(username);
+        if (user == null || !Objects.equals(user.password(), password)) {
+            return WalletResult.failure(WalletError.INVALID_CREDENTIALS);
+        }
+        return WalletResult.ok(user);
+    }
+
+    public User getUser(UUID userId) {
+        return userStorage.load(userId);
+    }
+
+    public WalletResult<Account> getAccount(UUID userId) {
+        var account = shardOf(userId).accountStorage().loadByUserId(userId);
+        return account != null ? WalletResult.ok(account) : WalletResult.failure(WalletError.ACCOUNT_NOT_FOUND);
+    }
+
+    public WalletResult<Operation> addOperation(UUID userId, OperationType type, UUID categoryId, long amount, String note) {
+        if (amount <= 0) {
+            return WalletResult.failure(WalletError.INVALID_AMOUNT);
+        }
+        var operationId = UUID.randomUUID();
+        var date = Instant.now();
+        return retryPolicy.execute(() -> tryAddOperation(userId, operationId, type, categoryId, amount, date, note),
+                result -> result.error() == WalletError.CONFLICT);
+    }
+
+    private WalletResult<Operation> tryAddOperation(UUID userId, UUID operationId, OperationType type, UUID categoryId,
+                                                    long amount, Instant date, String note) {
+        var shard = shardOf(userId);
+        var account = shard.accountStorage().loadByUserId(userId);
+        if (account == null) {
+            return WalletResult.failure(WalletError.ACCOUNT_NOT_FOUND);
+        }
+        if (type == OperationType.EXPENSE && amount > account.getBalance()) {
+            return WalletResult.failure(WalletError.INSUFFICIENT_FUNDS);
+        }
+
+        if (categoryId != null) {
+            var category = shard.categoryStorage().load(categoryId);
+            if (category == null || !userId.equals(category.getUserId())) {
+                return WalletResult.failure(WalletError.CATEGORY_NOT_FOUND);
+            }
+            if (type == OperationType.EXPENSE) {
+                var remainingLimit = category.getRemaining(shard.categorySpendingStorage().loadSpent(account.getId(), categoryId));
+                if (amount > remainingLimit) {
+                    return WalletResult.failure(WalletError.CATEGORY_LIMIT_EXCEEDED,
+                            "Лимит по категории исчерпан. Осталось: " + MoneyFormatter.format(remainingLimit));
+                }
+            }
+        }
+
+        var operation = new Operation(operationId, account.getId(), categoryId, type, amount, date, note);
+        var newBalance = type == OperationType.EXPENSE ? account.getBalance() - amount : account.getBalance() + amount;
+        return switch (shard.operationRecorder().record(account, operation, newBalance)) {
+            case COMPLETED -> WalletResult.ok(operation);
+            case CONFLICT -> WalletResult.failure(WalletError.CONFLICT);
+            case INSUFFICIENT_FUNDS -> WalletResult.failure(WalletError.INSUFFICIENT_FUNDS);
+            case FAILED -> WalletResult.failure(WalletError.FAILED, "Не удалось сохранить операцию.");
+        };
+    }
+
+    public WalletResult<Account> findRecipient(long accountNumber) {
+        var location = accountDirectory.locate(accountNumber);
+        return location != null ? WalletResult.ok(location.account()) : WalletResult.failure(WalletError.RECIPIENT_NOT_FOUND);
+    }
+
+    public WalletResult<Void> transfer(UUID userId, long recipientAccountNumber, long amount) {
+        if (amount <= 0) {
+            return WalletResult.failure(WalletError.INVALID_AMOUNT);
+        }
+        var recipient = accountDirectory.locate(recipientAccountNumber);
+        if (recipient == null) {
+            return WalletResult.failure(WalletError.RECIPIENT_NOT_FOUND);
+        }
+        var senderShardIndex = shardRouter.shardOf(userId);
+        var senderShard = shards.get(senderShardIndex);
+        var sender = senderShard.accountStorage().loadByUserId(userId);
+        if (sender == null) {
+            return WalletResult.failure(WalletError.ACCOUNT_NOT_FOUND);
+        }
+
+        var categoryId = getOrCreateTransferCategory(userId);
+        TransferResult result;
+        if (recipient.shard() == senderShardIndex) {
+            result = senderShard.transferService().transfer(sender.getId(), recipient.account().getId(), amount,
+                    categoryId, Instant.now());
+        } else {
+            var recipientCategoryId = getOrCreateTransferCategory(recipient.account().getUserId());
+            result = crossShardTransferService.transfer(senderShardIndex, sender.getId(), recipient.shard(),
+                    recipient.account().getId(), amount, categoryId, recipientCategoryId, Instant.now());
+        }
+        return switch (result) {
+            case COMPLETED -> WalletResult.ok(null);
+            case INSUFFICIENT_FUNDS -> WalletResult.failure(WalletError.INSUFFICIENT_FUNDS);
+            case FAILED -> WalletResult.failure(WalletError.FAILED, "Не удалось выполнить перевод.");
+        };
+    }
+
+    private UUID getOrCreateTransferCategory(UUID userId) {
+        var categoryStorage = shardOf(userId).categoryStorage();
+        var category = categoryStorage.loadByUserIdAndName(userId, TRANSFER_CATEGORY);
+        if (category != null) {
+            return category.getId();
+        }
+        var newCategory = new Category(UUID.randomUUID(), userId, TRANSFER_CATEGORY, Long.MAX_VALUE);
+        if (categoryStorage.trySave(newCategory)) {
+            return newCategory.getId();
+        }
+        var existing = categoryStorage.loadByUserIdAndName(userId, TRANSFER_CATEGORY);
+        return existing != null ? existing.getId() : null;
+    }
+
+    public List<Category> getCategories(UUID userId) {
+        return shardOf(userId).categoryStorage().loadAllByUserId(userId);
+    }
+
+    public WalletResult<Map<UUID, Long>> getSpentByCategory(UUID userId) {
+        var shard = shardOf(userId);
+        var accountId = accountIdOf(shard, userId);
+        if (accountId == null) {
+            return WalletResult.failure(WalletError.ACCOUNT_NOT_FOUND);
+        }
+        return WalletResult.ok(shard.categorySpendingStorage().loadAllByAccountId(accountId));
+    }
+
+    public WalletResult<Category> addCategory(UUID userId, String name, long limit) {
+        if (isBlank(name)) {
+            return WalletResult.failure(WalletError.EMPTY_CATEGORY_NAME);
+        }
+        if (limit < 0) {
+            return WalletResult.failure(WalletError.INVALID_LIMIT);
+        }
+        var categoryStorage = shardOf(userId).categoryStorage();
+        if (categoryStorage.loadByUserIdAndName(userId, name) != null) {
+            return WalletResult.failure(WalletError.CATEGORY_EXISTS);
+        }
+        var category = new Category(UUID.randomUUID(), userId, name, limit);
+        if (!categoryStorage.trySave(category)) {
+            return categoryStorage.loadByUserIdAndName(userId, name) != null
+                    ? WalletResult.failure(WalletError.CATEGORY_EXISTS)
+                    : WalletResult.failure(WalletError.FAILED);
+        }
+        return WalletResult.ok(category);
+    }
+
+    public WalletResult<Category> updateCategoryLimit(UUID userId, String name, long limit) {
+        if (limit < 0) {
+            return WalletResult.failure(WalletError.INVALID_LIMIT);
+        }
+        var categoryStorage = shardOf(userId).categoryStorage();
+        var category = categoryStorage.loadByUserIdAndName(userId, name);
+        if (category == null) {
+            return WalletResult.failure(WalletError.CATEGORY_NOT_FOUND);
+        }
+        category.setLimit(limit);
+        categoryStorage.update(category);
+        return WalletResult.ok(category);
+    }
+
+    public WalletResult<Category> deleteCategory(UUID userId, String name) {
+        var categoryStorage = shardOf(userId).categoryStorage();
+        var category = categoryStorage.loadByUserIdAndName(userId, name);
+        if (category == null) {
+            return WalletResult.failure(WalletError.CATEGORY_NOT_FOUND);
+        }
+        categoryStorage.delete(category.getId());
+        return WalletResult.ok(category);
+    }
+
+    public WalletResult<Map<OperationType, Long>> getTotals(UUID userId, OperationFilter filter) {
+        var shard = shardOf(userId);
+        var accountId = accountIdOf(shard, userId);
+        if (accountId == null) {
+            return WalletResult.failure(WalletError.ACCOUNT_NOT_FOUND);
+        }
+        return WalletResult.ok(shard.operationStorage().sumByType(accountId, filter));
+    }
+
+    public List<OperationEntry> loadOperationPage(UUID userId, OperationFilter filter, OperationCursor after, int pageSize) {
+        var shard = shardOf(userId);
+        var accountId = accountIdOf(shard, userId);
+        return accountId != null ? shard.operationStorage().loadPage(accountId, filter, after, pageSize) : List.of();
+    }
+
+    public OperationEntry findOperation(UUID userId, UUID operationId) {
+        var shard = shardOf(userId);
+        var accountId = accountIdOf(shard, userId);
+        return accountId != null ? shard.operationStorage().loadEntry(accountId, operationId) : null;
+    }
+
+    public List<OperationEntry> searchOperations(UUID userId, String text, int offset, int pageSize) {
+        var shard = shardOf(userId);
+        var accountId = accountIdOf(shard, userId);
+        return accountId != null ? shard.operationStorage().search(accountId, text, offset, pageSize) : List.of();
+    }
+
+    public List<PeriodTotal> getDailyTotals(UUID userId, LocalDate from, LocalDate to) {
+        var shard = shardOf(userId);
+        var accountId = accountIdOf(shard, userId);
+        return accountId != null ? shard.rollupStorage().loadDaily(accountId, from, to) : List.of();
+    }
+
+    public List<PeriodTotal> getMonthlyTotals(UUID userId, YearMonth from, YearMonth to) {
+        var shard = shardOf(userId);
+        var accountId = accountIdOf(shard, userId);
+        return accountId != null ? shard.rollupStorage().loadMonthly(accountId, from, to) : List.of();
+    }
+
+    public ImportResult importOperations(UUID userId, Path file) {
+        var shard = shardOf(userId);
+        var accountId = accountIdOf(shard, userId);
+        if (accountId == null) {
+            return new ImportResult(0, 0, true);
+        }
+        return shard.operationImporter().importFile(file, userId, accountId);
+    }
+
+    public long exportOperations(UUID userId, Path file) {
+        var shard = shardOf(userId);
+        var accountId = accountIdOf(shard, userId);
+        return accountId != null ? shard.operationExporter().exportFile(file, accountId) : -1;
+    }
+
+    private Shard shardOf(UUID userId) {
+        return shards.get(shardRouter.shardOf(userId));
+    }
+
+    private UUID accountIdOf(Shard shard, UUID userId) {
+        var account = shard.accountStorage().loadByUserId(userId);
+        return account != null ? account.getId() : null;
+    }
+
+    private boolean isBlank(String input) {
+        return input == null || input.isBlank();
+    }
+
+    private record Shard(AccountStorage accountStorage, OperationStorage operationStorage, CategoryStorage categoryStorage,
+                         CategorySpendingStorage categorySpendingStorage, RollupStorage rollupStorage,
+                         TransferService transferService, OperationRecorder operationRecorder,
+                         OperationImporter operationImporter, OperationExporter operationExporter) {
+        static Shard open(DatabaseConnection database) {
+            var accountStorage = LedgerStorage.isEnabled()
+                    ? new LedgerAccountStorage(database, new LedgerStorage(database))
+                    : new CachedAccountStorage(database);
+            var operationStorage = new OperationStorage(database);
+            var categoryStorage = new CachedCategoryStorage(database);
+            return new Shard(accountStorage, operationStorage, categoryStorage, new CategorySpendingStorage(database),
+                    new RollupStorage(database), new TransferService(database, accountStorage, operationStorage),
+                    new OperationRecorder(database, accountStorage, operationStorage),
+                    new OperationImporter(database, accountStorage, operationStorage, categoryStorage),
+                    new OperationExporter(operationStorage));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package storage;
+
+import utils.StorageExecutor;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+public class AccountDirectory {
+    private final ShardRouter shardRouter;
+
+    public AccountDirectory(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    public AccountLocation locate(long accountNumber) {
+        var lookups = new ArrayList<CompletableFuture<AccountLocation>>(shardRouter.getShardCount());
+        for (var shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            var shardIndex = shard;
+            var accountStorage = new AccountStorage(shardRouter.forShard(shard));
+            lookups.add(StorageExecutor.supplyAsync(() -> {
+                var account = accountStorage.loadByAccountNumber(accountNumber);
+                return account != null ? new AccountLocation(account, shardIndex) : null;
+            }));
+        }
+        for (var lookup : lookups) {
+            var location = lookup.join();
+            if (location != null) {
+                return location;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,6 @@
+package storage;
+
+import model.Account;
+
+public record AccountLocation(Account account, int shard) {
+}
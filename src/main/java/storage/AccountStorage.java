@@ -1,7 +1,10 @@
 package storage;
 
 import model.Account;
+import utils.DatabaseConfig;
 import utils.DatabaseConnection;
+import utils.PooledConnection;
+import utils.UuidCodec;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -12,53 +15,57 @@ import java.util.logging.Logger;
 
 public class AccountStorage implements StorageInterface<Account> {
     private static final Logger logger = Logger.getLogger(AccountStorage.class.getName());
-    private static final String DATABASE_URL = "jdbc:sqlite:wallet.db";
     private final String tableName;
+    private final DatabaseConnection databaseConnection;
 
     public AccountStorage() {
-        this.tableName = "accounts";
-        createTableIfNotExists();
+        this(DatabaseConfig.getDefaultConnection());
     }
 
-    private void createTableIfNotExists() {
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var stmt = connection.createStatement()) {
-            var sql = "CREATE TABLE IF NOT EXISTS " + tableName +
-                    " (id TEXT PRIMARY KEY, userId TEXT, accountNumber INTEGER UNIQUE, balance REAL)";
-            stmt.executeUpdate(sql);
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error creating table", e);
-        }
+    public AccountStorage(DatabaseConnection databaseConnection) {
+        this.tableName = "accounts";
+        this.databaseConnection = databaseConnection;
     }
 
     @Override
     public void save(Account account) {
-        var sql = "INSERT INTO " + tableName + " (id, userId, accountNumber, balance) VALUES (?, ?, ?, ?)";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, account.getId().toString());
-            pstmt.setString(2, account.getUserId().toString());
-            pstmt.setLong(3, account.getAccountNumber());
-            pstmt.setDouble(4, account.getBalance());
-            pstmt.executeUpdate();
+        trySave(account);
+    }
+
+    public boolean trySave(Account account) {
+        try (var connection = databaseConnection.getConnection()) {
+            save(connection, account);
+            return true;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error saving account", e);
+            return false;
         }
     }
 
+    public void save(PooledConnection connection, Account account) throws SQLException {
+        var sql = "INSERT INTO " + tableName + " (id, userId, accountNumber, balance) VALUES (?, ?, ?, ?)";
+        var pstmt = connection.prepareStatement(sql);
+        pstmt.setBytes(1, UuidCodec.toBytes(account.getId()));
+        pstmt.setBytes(2, UuidCodec.toBytes(account.getUserId()));
+        pstmt.setLong(3, account.getAccountNumber());
+        pstmt.setLong(4, account.getBalance());
+        pstmt.executeUpdate();
+    }
+
     @Override
     public Account load(UUID id) {
-        var sql = "SELECT id, userId, accountNumber, balance FROM " + tableName + " WHERE id = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id.toString());
+        var sql = "SELECT id, userId, accountNumber, balance, version FROM " + tableName + " WHERE id = ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(id));
             try (var rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     return new Account(
-                            UUID.fromString(rs.getString("id")),
-                            UUID.fromString(rs.getString("userId")),
+                            UuidCodec.fromBytes(rs.getBytes("id")),
+                            UuidCodec.fromBytes(rs.getBytes("userId")),
                             rs.getLong("accountNumber"),
-                            rs.getDouble("balance")
+                            rs.getLong("balance"),
+                            rs.getLong("version")
                     );
                 }
             }
@@ -69,17 +76,18 @@ public class AccountStorage implements StorageInterface<Account> {
     }
 
     public Account loadByUserId(UUID userId) {
-        var sql = "SELECT id, userId, accountNumber, balance FROM " + tableName + " WHERE userId = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, userId.toString());
+        var sql = "SELECT id, userId, accountNumber, balance, version FROM " + tableName + " WHERE userId = ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(userId));
             try (var rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     return new Account(
-                            UUID.fromString(rs.getString("id")),
+                            UuidCodec.fromBytes(rs.getBytes("id")),
                             userId,
                             rs.getLong("accountNumber"),
-                            rs.getDouble("balance")
+                            rs.getLong("balance"),
+                            rs.getLong("version")
                     );
                 }
             }
@@ -90,17 +98,18 @@ public class AccountStorage implements StorageInterface<Account> {
     }
 
     public Account loadByAccountNumber(long accountNumber) {
-        var sql = "SELECT id, userId, accountNumber, balance FROM " + tableName + " WHERE accountNumber = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
+        var sql = "SELECT id, userId, accountNumber, balance, version FROM " + tableName + " WHERE accountNumber = ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
             pstmt.setLong(1, accountNumber);
             try (var rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     return new Account(
-                            UUID.fromString(rs.getString("id")),
-                            UUID.fromString(rs.getString("userId")),
+                            UuidCodec.fromBytes(rs.getBytes("id")),
+                            UuidCodec.fromBytes(rs.getBytes("userId")),
                             rs.getLong("accountNumber"),
-                            rs.getDouble("balance")
+                            rs.getLong("balance"),
+                            rs.getLong("version")
                     );
                 }
             }
@@ -113,16 +122,17 @@ public class AccountStorage implements StorageInterface<Account> {
     @Override
     public List<Account> loadAll() {
         var accounts = new ArrayList<Account>();
-        var sql = "SELECT id, userId, accountNumber, balance FROM " + tableName;
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
+        var sql = "SELECT id, userId, accountNumber, balance, version FROM " + tableName;
+        try (var connection = databaseConnection.getConnection();
              var stmt = connection.createStatement();
              var rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 accounts.add(new Account(
-                        UUID.fromString(rs.getString("id")),
-                        UUID.fromString(rs.getString("userId")),
+                        UuidCodec.fromBytes(rs.getBytes("id")),
+                        UuidCodec.fromBytes(rs.getBytes("userId")),
                         rs.getLong("accountNumber"),
-                        rs.getDouble("balance")
+                        rs.getLong("balance"),
+                        rs.getLong("version")
                 ));
             }
         } catch (SQLException e) {
@@ -133,23 +143,73 @@ public class AccountStorage implements StorageInterface<Account> {
 
     @Override
     public void update(Account account) {
-        var sql = "UPDATE " + tableName + " SET balance = ? WHERE id = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setDouble(1, account.getBalance());
-            pstmt.setString(2, account.getId().toString());
-            pstmt.executeUpdate();
+        try (var connection = databaseConnection.getConnection()) {
+            if (!tryUpdate(connection, account)) {
+                throw new ConcurrentUpdateException(account.getId());
+            }
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating account", e);
         }
     }
 
+    public boolean tryUpdate(Account account) {
+        try (var connection = databaseConnection.getConnection()) {
+            return tryUpdate(connection, account);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error updating account", e);
+            return false;
+        }
+    }
+
+    public boolean tryUpdate(PooledConnection connection, Account account) throws SQLException {
+        var sql = "UPDATE " + tableName + " SET balance = ?, version = version + 1 WHERE id = ? AND version = ?";
+        var pstmt = connection.prepareStatement(sql);
+        pstmt.setLong(1, account.getBalance());
+        pstmt.setBytes(2, UuidCodec.toBytes(account.getId()));
+        pstmt.setLong(3, account.getVersion());
+        if (pstmt.executeUpdate() != 1) {
+            return false;
+        }
+        account.setVersion(account.getVersion() + 1);
+        return true;
+    }
+
+    public boolean withdraw(PooledConnection connection, UUID accountId, long amount) throws SQLException {
+        var sql = "UPDATE " + tableName + " SET balance = balance - ?, version = version + 1 WHERE id = ? AND balance >= ?";
+        var pstmt = connection.prepareStatement(sql);
+        pstmt.setLong(1, amount);
+        pstmt.setBytes(2, UuidCodec.toBytes(accountId));
+        pstmt.setLong(3, amount);
+        return pstmt.executeUpdate() == 1;
+    }
+
+    public boolean deposit(PooledConnection connection, UUID accountId, long amount) throws SQLException {
+        var sql = "UPDATE " + tableName + " SET balance = balance + ?, version = version + 1 WHERE id = ?";
+        var pstmt = connection.prepareStatement(sql);
+        pstmt.setLong(1, amount);
+        pstmt.setBytes(2, UuidCodec.toBytes(accountId));
+        return pstmt.executeUpdate() == 1;
+    }
+
+    public void recomputeBalance(PooledConnection connection, UUID accountId) throws SQLException {
+        var sql = "UPDATE " + tableName + " SET balance = (SELECT IFNULL(SUM(CASE type WHEN 0 THEN amount ELSE -amount END), 0) " +
+                "FROM operations WHERE accountId = ?), version = version + 1 WHERE id = ?";
+        var pstmt = connection.prepareStatement(sql);
+        pstmt.setBytes(1, UuidCodec.toBytes(accountId));
+        pstmt.setBytes(2, UuidCodec.toBytes(accountId));
+        pstmt.executeUpdate();
+    }
+
+    public DatabaseConnection getDatabaseConnection() {
+        return databaseConnection;
+    }
+
     @Override
     public void delete(UUID id) {
         var sql = "DELETE FROM " + tableName + " WHERE id = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id.toString());
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(id));
             pstmt.executeUpdate();
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error deleting account", e);
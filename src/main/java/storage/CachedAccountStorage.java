@@ -0,0 +1,195 @@
+package storage;
+
+import model.Account;
+import utils.DatabaseConfig;
+import utils.DatabaseConnection;
+import utils.LruCache;
+import utils.PooledConnection;
+
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CachedAccountStorage extends AccountStorage {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private final LruCache<UUID, Account> accountsById;
+    private final LruCache<UUID, UUID> accountIdsByUserId;
+    private final LruCache<Long, UUID> accountIdsByNumber;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Object lock = new Object();
+    private long generation;
+
+    public CachedAccountStorage() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CachedAccountStorage(int capacity) {
+        this(DatabaseConfig.getDefaultConnection(), capacity);
+    }
+
+    public CachedAccountStorage(DatabaseConnection databaseConnection) {
+        this(databaseConnection, DEFAULT_CAPACITY);
+    }
+
+    public CachedAccountStorage(DatabaseConnection databaseConnection, int capacity) {
+        super(databaseConnection);
+        this.accountsById = new LruCache<>(capacity);
+        this.accountIdsByUserId = new LruCache<>(capacity);
+        this.accountIdsByNumber = new LruCache<>(capacity);
+    }
+
+    @Override
+    public boolean trySave(Account account) {
+        if (!super.trySave(account)) {
+            return false;
+        }
+        synchronized (lock) {
+            generation++;
+            remember(account);
+        }
+        return true;
+    }
+
+    @Override
+    public Account load(UUID id) {
+        var cached = accountsById.get(id);
+        if (cached != null) {
+            hits.increment();
+            return copy(cached);
+        }
+        misses.increment();
+        var observed = currentGeneration();
+        var account = super.load(id);
+        if (account != null) {
+            cacheIfUnchanged(observed, account);
+        }
+        return account;
+    }
+
+    @Override
+    public Account loadByUserId(UUID userId) {
+        var cached = lookup(accountIdsByUserId.get(userId));
+        if (cached != null) {
+            hits.increment();
+            return copy(cached);
+        }
+        misses.increment();
+        var observed = currentGeneration();
+        var account = super.loadByUserId(userId);
+        if (account != null) {
+            cacheIfUnchanged(observed, account);
+        }
+        return account;
+    }
+
+    @Override
+    public Account loadByAccountNumber(long accountNumber) {
+        var cached = lookup(accountIdsByNumber.get(accountNumber));
+        if (cached != null) {
+            hits.increment();
+            return copy(cached);
+        }
+        misses.increment();
+        var observed = currentGeneration();
+        var account = super.loadByAccountNumber(accountNumber);
+        if (account != null) {
+            cacheIfUnchanged(observed, account);
+        }
+        return account;
+    }
+
+    @Override
+    public boolean tryUpdate(Account account) {
+        if (!super.tryUpdate(account)) {
+            return false;
+        }
+        synchronized (lock) {
+            generation++;
+            remember(account);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryUpdate(PooledConnection connection, Account account) throws SQLException {
+        var updated = super.tryUpdate(connection, account);
+        invalidate(connection, account.getId());
+        return updated;
+    }
+
+    @Override
+    public boolean withdraw(PooledConnection connection, UUID accountId, long amount) throws SQLException {
+        var withdrawn = super.withdraw(connection, accountId, amount);
+        invalidate(connection, accountId);
+        return withdrawn;
+    }
+
+    @Override
+    public boolean deposit(PooledConnection connection, UUID accountId, long amount) throws SQLException {
+        var deposited = super.deposit(connection, accountId, amount);
+        invalidate(connection, accountId);
+        return deposited;
+    }
+
+    @Override
+    public void recomputeBalance(PooledConnection connection, UUID accountId) throws SQLException {
+        super.recomputeBalance(connection, accountId);
+        invalidate(connection, accountId);
+    }
+
+    @Override
+    public void delete(UUID id) {
+        super.delete(id);
+        invalidate(id);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    protected void invalidate(PooledConnection connection, UUID id) {
+        invalidate(id);
+        connection.afterCommit(() -> invalidate(id));
+    }
+
+    private void invalidate(UUID id) {
+        synchronized (lock) {
+            generation++;
+            accountsById.remove(id);
+        }
+    }
+
+    private long currentGeneration() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    private void cacheIfUnchanged(long observed, Account account) {
+        synchronized (lock) {
+            if (generation == observed) {
+                remember(account);
+            }
+        }
+    }
+
+    private Account lookup(UUID id) {
+        return id != null ? accountsById.get(id) : null;
+    }
+
+    private void remember(Account account) {
+        accountsById.put(account.getId(), copy(account));
+        accountIdsByUserId.put(account.getUserId(), account.getId());
+        accountIdsByNumber.put(account.getAccountNumber(), account.getId());
+    }
+
+    private Account copy(Account account) {
+        return new Account(account.getId(), account.getUserId(), account.getAccountNumber(), account.getBalance(),
+                account.getVersion());
+    }
+}
@@ -0,0 +1,190 @@
+package storage;
+
+import model.Category;
+import utils.DatabaseConfig;
+import utils.DatabaseConnection;
+import utils.LruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CachedCategoryStorage extends CategoryStorage {
+    private static final int DEFAULT_CAPACITY = 256;
+    private final LruCache<UUID, Category> categoriesById;
+    private final LruCache<UUID, List<Category>> categoriesByUserId;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Object lock = new Object();
+    private long generation;
+
+    public CachedCategoryStorage() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CachedCategoryStorage(int capacity) {
+        this(DatabaseConfig.getDefaultConnection(), capacity);
+    }
+
+    public CachedCategoryStorage(DatabaseConnection databaseConnection) {
+        this(databaseConnection, DEFAULT_CAPACITY);
+    }
+
+    public CachedCategoryStorage(DatabaseConnection databaseConnection, int capacity) {
+        super(databaseConnection);
+        this.categoriesById = new LruCache<>(capacity);
+        this.categoriesByUserId = new LruCache<>(capacity);
+    }
+
+    @Override
+    public boolean trySave(Category category) {
+        if (!super.trySave(category)) {
+            return false;
+        }
+        synchronized (lock) {
+            generation++;
+            categoriesById.put(category.getId(), copy(category));
+            var cachedList = categoriesByUserId.get(category.getUserId());
+            if (cachedList != null) {
+                var updatedList = new ArrayList<>(cachedList);
+                updatedList.add(copy(category));
+                categoriesByUserId.put(category.getUserId(), List.copyOf(updatedList));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Category load(UUID id) {
+        var cached = categoriesById.get(id);
+        if (cached != null) {
+            hits.increment();
+            return copy(cached);
+        }
+        misses.increment();
+        var observed = currentGeneration();
+        var category = super.load(id);
+        if (category != null) {
+            cacheIfUnchanged(observed, () -> categoriesById.put(id, copy(category)));
+        }
+        return category;
+    }
+
+    @Override
+    public Category loadByUserIdAndName(UUID userId, String name) {
+        var cachedList = categoriesByUserId.get(userId);
+        if (cachedList != null) {
+            hits.increment();
+            return cachedList.stream()
+                    .filter(category -> category.getName().equals(name))
+                    .findFirst()
+                    .map(this::copy)
+                    .orElse(null);
+        }
+        misses.increment();
+        var observed = currentGeneration();
+        var category = super.loadByUserIdAndName(userId, name);
+        if (category != null) {
+            cacheIfUnchanged(observed, () -> categoriesById.put(category.getId(), copy(category)));
+        }
+        return category;
+    }
+
+    @Override
+    public List<Category> loadAllByUserId(UUID userId) {
+        if (userId == null) {
+            return super.loadAllByUserId(null);
+        }
+        var cachedList = categoriesByUserId.get(userId);
+        if (cachedList != null) {
+            hits.increment();
+            return copyAll(cachedList);
+        }
+        misses.increment();
+        var observed = currentGeneration();
+        var categories = super.loadAllByUserId(userId);
+        cacheIfUnchanged(observed, () -> categoriesByUserId.put(userId, List.copyOf(copyAll(categories))));
+        return categories;
+    }
+
+    @Override
+    public boolean tryUpdate(Category category) {
+        if (!super.tryUpdate(category)) {
+            return false;
+        }
+        synchronized (lock) {
+            generation++;
+            categoriesById.put(category.getId(), copy(category));
+            var cachedList = categoriesByUserId.get(category.getUserId());
+            if (cachedList != null) {
+                var updatedList = cachedList.stream()
+                        .map(cached -> cached.getId().equals(category.getId()) ? copy(category) : cached)
+                        .toList();
+                categoriesByUserId.put(category.getUserId(), updatedList);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryDelete(UUID id) {
+        if (!super.tryDelete(id)) {
+            return false;
+        }
+        synchronized (lock) {
+            generation++;
+            var removed = categoriesById.remove(id);
+            if (removed != null) {
+                removeFromUserList(removed.getUserId(), id);
+            } else {
+                categoriesByUserId.clear();
+            }
+        }
+        return true;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private long currentGeneration() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    private void cacheIfUnchanged(long observed, Runnable put) {
+        synchronized (lock) {
+            if (generation == observed) {
+                put.run();
+            }
+        }
+    }
+
+    private void removeFromUserList(UUID userId, UUID categoryId) {
+        var cachedList = categoriesByUserId.get(userId);
+        if (cachedList != null) {
+            var updatedList = cachedList.stream()
+                    .filter(cached -> !cached.getId().equals(categoryId))
+                    .toList();
+            categoriesByUserId.put(userId, updatedList);
+        }
+    }
+
+    private List<Category> copyAll(List<Category> categories) {
+        var copies = new ArrayList<Category>(categories.size());
+        for (var category : categories) {
+            copies.add(copy(category));
+        }
+        return copies;
+    }
+
+    private Category copy(Category category) {
+        return new Category(category.getId(), category.getUserId(), category.getName(), category.getLimit());
+    }
+}
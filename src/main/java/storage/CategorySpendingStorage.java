@@ -0,0 +1,61 @@
+package storage;
+
+import utils.DatabaseConfig;
+import utils.DatabaseConnection;
+import utils.UuidCodec;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class CategorySpendingStorage {
+    private static final Logger logger = Logger.getLogger(CategorySpendingStorage.class.getName());
+    private final String tableName;
+    private final DatabaseConnection databaseConnection;
+
+    public CategorySpendingStorage() {
+        this(DatabaseConfig.getDefaultConnection());
+    }
+
+    public CategorySpendingStorage(DatabaseConnection databaseConnection) {
+        this.tableName = "category_spending";
+        this.databaseConnection = databaseConnection;
+    }
+
+    public long loadSpent(UUID accountId, UUID categoryId) {
+        var sql = "SELECT spent FROM " + tableName + " WHERE accountId = ? AND categoryId = ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(accountId));
+            pstmt.setBytes(2, UuidCodec.toBytes(categoryId));
+            try (var rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong("spent");
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading category spending", e);
+        }
+        return 0;
+    }
+
+    public Map<UUID, Long> loadAllByAccountId(UUID accountId) {
+        var spending = new HashMap<UUID, Long>();
+        var sql = "SELECT categoryId, spent FROM " + tableName + " WHERE accountId = ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(accountId));
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    spending.put(UuidCodec.fromBytes(rs.getBytes("categoryId")), rs.getLong("spent"));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading category spending by accountId", e);
+        }
+        return spending;
+    }
+}
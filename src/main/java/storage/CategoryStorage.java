@@ -1,7 +1,11 @@
 package storage;
 
 import model.Category;
+import model.CategoryChanged;
+import utils.DatabaseConfig;
 import utils.DatabaseConnection;
+import utils.EventBus;
+import utils.UuidCodec;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -12,51 +16,52 @@ import java.util.logging.Logger;
 
 public class CategoryStorage implements StorageInterface<Category> {
     private static final Logger logger = Logger.getLogger(CategoryStorage.class.getName());
-    private static final String DATABASE_URL = "jdbc:sqlite:wallet.db";
     private final String tableName;
+    private final DatabaseConnection databaseConnection;
 
     public CategoryStorage() {
-        this.tableName = "categories";
-        createTableIfNotExists();
+        this(DatabaseConfig.getDefaultConnection());
     }
 
-    private void createTableIfNotExists() {
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var stmt = connection.createStatement()) {
-            var sql = "CREATE TABLE IF NOT EXISTS " + tableName + " (id TEXT PRIMARY KEY, userId TEXT, name TEXT, [limit] REAL)";
-            stmt.executeUpdate(sql);
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error creating table", e);
-        }
+    public CategoryStorage(DatabaseConnection databaseConnection) {
+        this.tableName = "categories";
+        this.databaseConnection = databaseConnection;
     }
 
     @Override
     public void save(Category category) {
+        trySave(category);
+    }
+
+    public boolean trySave(Category category) {
         var sql = "INSERT INTO " + tableName + " (id, userId, name, [limit]) VALUES (?, ?, ?, ?)";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, category.getId().toString());
-            pstmt.setString(2, category.getUserId().toString());
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(category.getId()));
+            pstmt.setBytes(2, UuidCodec.toBytes(category.getUserId()));
             pstmt.setString(3, category.getName());
-            pstmt.setDouble(4, category.getLimit());
+            pstmt.setLong(4, category.getLimit());
             pstmt.executeUpdate();
+            EventBus.getInstance().publish(CategoryChanged.saved(category));
+            return true;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error saving category", e);
+            return false;
         }
     }
 
     @Override
     public Category load(UUID id) {
         var sql = "SELECT id, userId, name, [limit] FROM " + tableName + " WHERE id = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id.toString());
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(id));
             try (var rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    var categoryId = UUID.fromString(rs.getString("id"));
-                    var userId = UUID.fromString(rs.getString("userId"));
+                    var categoryId = UuidCodec.fromBytes(rs.getBytes("id"));
+                    var userId = UuidCodec.fromBytes(rs.getBytes("userId"));
                     var name = rs.getString("name");
-                    var limit = rs.getDouble("limit");
+                    var limit = rs.getLong("limit");
                     return new Category(categoryId, userId, name, limit);
                 }
             }
@@ -68,15 +73,15 @@ public class CategoryStorage implements StorageInterface<Category> {
 
     public Category loadByUserIdAndName(UUID userId, String name) {
         var sql = "SELECT id, userId, name, [limit] FROM " + tableName + " WHERE userId = ? AND name = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, userId.toString());
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(userId));
             pstmt.setString(2, name);
             try (var rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    var categoryId = UUID.fromString(rs.getString("id"));
+                    var categoryId = UuidCodec.fromBytes(rs.getBytes("id"));
                     var categoryName = rs.getString("name");
-                    var limit = rs.getDouble("limit");
+                    var limit = rs.getLong("limit");
                     return new Category(categoryId, userId, categoryName, limit);
                 }
             }
@@ -97,17 +102,17 @@ public class CategoryStorage implements StorageInterface<Category> {
         if (userId != null) {
             sql += " WHERE userId = ?";
         }
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
             if (userId != null) {
-                pstmt.setString(1, userId.toString());
+                pstmt.setBytes(1, UuidCodec.toBytes(userId));
             }
             try (var rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    var categoryId = UUID.fromString(rs.getString("id"));
-                    var userIdFromDb = UUID.fromString(rs.getString("userId"));
+                    var categoryId = UuidCodec.fromBytes(rs.getBytes("id"));
+                    var userIdFromDb = UuidCodec.fromBytes(rs.getBytes("userId"));
                     var name = rs.getString("name");
-                    var limit = rs.getDouble("limit");
+                    var limit = rs.getLong("limit");
                     categories.add(new Category(categoryId, userIdFromDb, name, limit));
                 }
             }
@@ -119,27 +124,43 @@ public class CategoryStorage implements StorageInterface<Category> {
 
     @Override
     public void update(Category category) {
+        tryUpdate(category);
+    }
+
+    public boolean tryUpdate(Category category) {
         var sql = "UPDATE " + tableName + " SET name = ?, [limit] = ? WHERE id = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
             pstmt.setString(1, category.getName());
-            pstmt.setDouble(2, category.getLimit());
-            pstmt.setString(3, category.getId().toString());
-            pstmt.executeUpdate();
+            pstmt.setLong(2, category.getLimit());
+            pstmt.setBytes(3, UuidCodec.toBytes(category.getId()));
+            if (pstmt.executeUpdate() != 1) {
+                return false;
+            }
+            EventBus.getInstance().publish(CategoryChanged.saved(category));
+            return true;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating category", e);
+            return false;
         }
     }
 
     @Override
     public void delete(UUID id) {
+        tryDelete(id);
+    }
+
+    public boolean tryDelete(UUID id) {
         var sql = "DELETE FROM " + tableName + " WHERE id = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id.toString());
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(id));
             pstmt.executeUpdate();
+            EventBus.getInstance().publish(CategoryChanged.deleted(id));
+            return true;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error deleting category", e);
+            return false;
         }
     }
 }
@@ -0,0 +1,16 @@
+package storage;
+
+import java.util.UUID;
+
+public class ConcurrentUpdateException extends RuntimeException {
+    private final UUID id;
+
+    public ConcurrentUpdateException(UUID id) {
+        super("Record " + id + " was modified concurrently");
+        this.id = id;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,68 @@
+package storage;
+
+import model.Account;
+import utils.DatabaseConnection;
+import utils.PooledConnection;
+import utils.UuidCodec;
+
+import java.sql.SQLException;
+import java.util.UUID;
+
+public class LedgerAccountStorage extends CachedAccountStorage {
+    private static final String LEDGER_BALANCE = LedgerStorage.derivedBalance("accounts.id");
+    private final LedgerStorage ledgerStorage;
+
+    public LedgerAccountStorage(LedgerStorage ledgerStorage) {
+        this.ledgerStorage = ledgerStorage;
+    }
+
+    public LedgerAccountStorage(DatabaseConnection databaseConnection, LedgerStorage ledgerStorage) {
+        super(databaseConnection);
+        this.ledgerStorage = ledgerStorage;
+    }
+
+    @Override
+    public Account load(UUID id) {
+        return withLedgerBalance(super.load(id));
+    }
+
+    @Override
+    public Account loadByUserId(UUID userId) {
+        return withLedgerBalance(super.loadByUserId(userId));
+    }
+
+    @Override
+    public Account loadByAccountNumber(long accountNumber) {
+        return withLedgerBalance(super.loadByAccountNumber(accountNumber));
+    }
+
+    public boolean hasFunds(PooledConnection connection, UUID accountId, long amount) throws SQLException {
+        var sql = "SELECT 1 FROM accounts WHERE id = ? AND " + LEDGER_BALANCE + " >= ?";
+        var pstmt = connection.prepareStatement(sql);
+        pstmt.setBytes(1, UuidCodec.toBytes(accountId));
+        pstmt.setLong(2, amount);
+        try (var rs = pstmt.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    @Override
+    public boolean withdraw(PooledConnection connection, UUID accountId, long amount) throws SQLException {
+        var sql = "UPDATE accounts SET balance = " + LEDGER_BALANCE + " - ?, version = version + 1 " +
+                "WHERE id = ? AND " + LEDGER_BALANCE + " >= ?";
+        var pstmt = connection.prepareStatement(sql);
+        pstmt.setLong(1, amount);
+        pstmt.setBytes(2, UuidCodec.toBytes(accountId));
+        pstmt.setLong(3, amount);
+        var withdrawn = pstmt.executeUpdate() == 1;
+        invalidate(connection, accountId);
+        return withdrawn;
+    }
+
+    private Account withLedgerBalance(Account account) {
+        if (account != null) {
+            account.setBalance(ledgerStorage.loadBalance(account.getId()));
+        }
+        return account;
+    }
+}
@@ -0,0 +1,126 @@
+package storage;
+
+import utils.DatabaseConfig;
+import utils.DatabaseConnection;
+import utils.PooledConnection;
+import utils.UuidCodec;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class LedgerStorage {
+    private static final Logger logger = Logger.getLogger(LedgerStorage.class.getName());
+    private static final String DERIVED_BALANCE = derivedBalance("a.id");
+    private final DatabaseConnection databaseConnection;
+
+    public LedgerStorage() {
+        this(DatabaseConfig.getDefaultConnection());
+    }
+
+    public LedgerStorage(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("wallet.ledger");
+    }
+
+    static String derivedBalance(String accountId) {
+        return "IFNULL((SELECT s.balance FROM account_snapshots s WHERE s.accountId = " + accountId + "), 0) + " +
+                "IFNULL((SELECT SUM(l.delta) FROM ledger_entries l WHERE l.accountId = " + accountId + " AND l.seq > " +
+                "IFNULL((SELECT s.lastSeq FROM account_snapshots s WHERE s.accountId = " + accountId + "), 0)), 0)";
+    }
+
+    public long loadBalance(UUID accountId) {
+        var sql = "SELECT " + DERIVED_BALANCE + " AS balance FROM accounts a WHERE a.id = ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(accountId));
+            try (var rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong("balance");
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading ledger balance", e);
+        }
+        return 0;
+    }
+
+    public int snapshot() {
+        try {
+            return databaseConnection.inTransaction(this::snapshot);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error taking account snapshots", e);
+            return 0;
+        }
+    }
+
+    public List<UUID> findDrift() {
+        var drifted = new ArrayList<UUID>();
+        var sql = "SELECT a.id FROM accounts a WHERE a.balance <> " + DERIVED_BALANCE;
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    drifted.add(UuidCodec.fromBytes(rs.getBytes("id")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error auditing account balances", e);
+        }
+        return drifted;
+    }
+
+    public int reconcile() {
+        try {
+            return databaseConnection.inTransaction(this::reconcile);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error reconciling account balances", e);
+            return 0;
+        }
+    }
+
+    public int rebuildBalances() {
+        try {
+            return databaseConnection.inTransaction(connection -> {
+                connection.prepareStatement("DELETE FROM account_snapshots").executeUpdate();
+                snapshot(connection);
+                return reconcile(connection);
+            });
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error rebuilding account balances", e);
+            return 0;
+        }
+    }
+
+    private int snapshot(PooledConnection connection) throws SQLException {
+        var watermark = 0L;
+        try (var rs = connection.prepareStatement("SELECT IFNULL(MAX(lastSeq), 0) FROM account_snapshots").executeQuery()) {
+            if (rs.next()) {
+                watermark = rs.getLong(1);
+            }
+        }
+        var sql = "INSERT INTO account_snapshots (accountId, balance, lastSeq, takenAt) " +
+                "SELECT l.accountId, IFNULL(s.balance, 0) + SUM(l.delta), MAX(l.seq), ? " +
+                "FROM ledger_entries l NOT INDEXED LEFT JOIN account_snapshots s ON s.accountId = l.accountId " +
+                "WHERE l.seq > ? AND l.seq > IFNULL(s.lastSeq, 0) GROUP BY l.accountId " +
+                "ON CONFLICT (accountId) DO UPDATE SET balance = excluded.balance, lastSeq = excluded.lastSeq, " +
+                "takenAt = excluded.takenAt";
+        var pstmt = connection.prepareStatement(sql);
+        pstmt.setLong(1, System.currentTimeMillis());
+        pstmt.setLong(2, watermark);
+        return pstmt.executeUpdate();
+    }
+
+    private int reconcile(PooledConnection connection) throws SQLException {
+        var sql = "WITH derived AS (SELECT a.id, " + DERIVED_BALANCE + " AS balance FROM accounts a) " +
+                "UPDATE accounts SET balance = derived.balance, version = version + 1 FROM derived " +
+                "WHERE derived.id = accounts.id AND accounts.balance <> derived.balance";
+        return connection.prepareStatement(sql).executeUpdate();
+    }
+}
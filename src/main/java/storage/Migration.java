@@ -0,0 +1,6 @@
+package storage;
+
+import java.util.List;
+
+record Migration(int version, String description, List<String> statements) {
+}
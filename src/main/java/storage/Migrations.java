@@ -0,0 +1,332 @@
+package storage;
+
+import java.util.List;
+
+final class Migrations {
+    private static final String DAILY_BUCKET = "strftime('%Y-%m-%d', {0}.date / 1000, 'unixepoch', 'localtime')";
+    private static final String MONTHLY_BUCKET = "strftime('%Y-%m', {0}.date / 1000, 'unixepoch', 'localtime')";
+    private static final String LEDGER_DELTA = "CASE {0}.type WHEN 0 THEN {0}.amount ELSE -{0}.amount END";
+
+    static final List<Migration> ALL = List.of(
+            new Migration(1, "Create base tables", List.of(
+                    "CREATE TABLE IF NOT EXISTS users (id TEXT PRIMARY KEY, username TEXT, password TEXT)",
+                    "CREATE TABLE IF NOT EXISTS accounts (id TEXT PRIMARY KEY, userId TEXT, accountNumber INTEGER UNIQUE, balance REAL)",
+                    "CREATE TABLE IF NOT EXISTS categories (id TEXT PRIMARY KEY, userId TEXT, name TEXT, [limit] REAL)",
+                    "CREATE TABLE IF NOT EXISTS operations (id TEXT PRIMARY KEY, accountId TEXT, categoryId TEXT, type TEXT, amount REAL, date TEXT)"
+            )),
+            new Migration(2, "Add lookup indexes", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_users_username ON users (username)",
+                    "CREATE INDEX IF NOT EXISTS idx_accounts_userId ON accounts (userId)",
+                    "CREATE INDEX IF NOT EXISTS idx_categories_userId_name ON categories (userId, name)",
+                    "CREATE INDEX IF NOT EXISTS idx_operations_accountId ON operations (accountId)"
+            )),
+            new Migration(3, "Add per-category spending counters", List.of(
+                    "CREATE TABLE category_spending (accountId TEXT NOT NULL, categoryId TEXT NOT NULL, " +
+                            "spent REAL NOT NULL DEFAULT 0, PRIMARY KEY (accountId, categoryId))",
+                    "INSERT INTO category_spending (accountId, categoryId, spent) " +
+                            "SELECT accountId, categoryId, SUM(amount) FROM operations " +
+                            "WHERE type = 'Расход' AND categoryId IS NOT NULL GROUP BY accountId, categoryId",
+                    spendingInsertTrigger("'Расход'"),
+                    spendingDeleteTrigger("'Расход'"),
+                    spendingUpdateTrigger("'Расход'")
+            )),
+            new Migration(4, "Index operations for keyset pagination", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_operations_accountId_date ON operations (accountId, date, id)",
+                    "DROP INDEX IF EXISTS idx_operations_accountId"
+            )),
+            new Migration(5, "Store money as integer minor units", List.of(
+                    "CREATE TABLE accounts_new (id TEXT PRIMARY KEY, userId TEXT, accountNumber INTEGER UNIQUE, " +
+                            "balance INTEGER NOT NULL DEFAULT 0)",
+                    "INSERT INTO accounts_new (id, userId, accountNumber, balance) " +
+                            "SELECT id, userId, accountNumber, CAST(ROUND(IFNULL(balance, 0) * 100) AS INTEGER) FROM accounts",
+                    "DROP TABLE accounts",
+                    "ALTER TABLE accounts_new RENAME TO accounts",
+                    "CREATE INDEX idx_accounts_userId ON accounts (userId)",
+                    "CREATE TABLE categories_new (id TEXT PRIMARY KEY, userId TEXT, name TEXT, [limit] INTEGER NOT NULL DEFAULT 0)",
+                    "INSERT INTO categories_new (id, userId, name, [limit]) " +
+                            "SELECT id, userId, name, CASE WHEN [limit] >= 92233720368547758 THEN 9223372036854775807 " +
+                            "ELSE CAST(ROUND(IFNULL([limit], 0) * 100) AS INTEGER) END FROM categories",
+                    "DROP TABLE categories",
+                    "ALTER TABLE categories_new RENAME TO categories",
+                    "CREATE INDEX idx_categories_userId_name ON categories (userId, name)",
+                    "CREATE TABLE operations_new (id TEXT PRIMARY KEY, accountId TEXT, categoryId TEXT, type TEXT, " +
+                            "amount INTEGER NOT NULL, date TEXT)",
+                    "INSERT INTO operations_new (id, accountId, categoryId, type, amount, date) " +
+                            "SELECT id, accountId, categoryId, type, CAST(ROUND(amount * 100) AS INTEGER), date FROM operations",
+                    "DROP TABLE operations",
+                    "ALTER TABLE operations_new RENAME TO operations",
+                    "CREATE INDEX idx_operations_accountId_date ON operations (accountId, date, id)",
+                    "DROP TABLE category_spending",
+                    "CREATE TABLE category_spending (accountId TEXT NOT NULL, categoryId TEXT NOT NULL, " +
+                            "spent INTEGER NOT NULL DEFAULT 0, PRIMARY KEY (accountId, categoryId))",
+                    "INSERT INTO category_spending (accountId, categoryId, spent) " +
+                            "SELECT accountId, categoryId, SUM(amount) FROM operations " +
+                            "WHERE type = 'Расход' AND categoryId IS NOT NULL GROUP BY accountId, categoryId",
+                    spendingInsertTrigger("'Расход'"),
+                    spendingDeleteTrigger("'Расход'"),
+                    spendingUpdateTrigger("'Расход'")
+            )),
+            new Migration(6, "Store ids as 16-byte blobs and operation types as codes", List.of(
+                    "CREATE TABLE users_new (id BLOB PRIMARY KEY, username TEXT, password TEXT)",
+                    "INSERT INTO users_new (id, username, password) " +
+                            "SELECT unhex(replace(id, '-', '')), username, password FROM users",
+                    "DROP TABLE users",
+                    "ALTER TABLE users_new RENAME TO users",
+                    "CREATE INDEX idx_users_username ON users (username)",
+                    "CREATE TABLE accounts_new (id BLOB PRIMARY KEY, userId BLOB, accountNumber INTEGER UNIQUE, " +
+                            "balance INTEGER NOT NULL DEFAULT 0)",
+                    "INSERT INTO accounts_new (id, userId, accountNumber, balance) " +
+                            "SELECT unhex(replace(id, '-', '')), unhex(replace(userId, '-', '')), accountNumber, balance " +
+                            "FROM accounts",
+                    "DROP TABLE accounts",
+                    "ALTER TABLE accounts_new RENAME TO accounts",
+                    "CREATE INDEX idx_accounts_userId ON accounts (userId)",
+                    "CREATE TABLE categories_new (id BLOB PRIMARY KEY, userId BLOB, name TEXT, [limit] INTEGER NOT NULL DEFAULT 0)",
+                    "INSERT INTO categories_new (id, userId, name, [limit]) " +
+                            "SELECT unhex(replace(id, '-', '')), unhex(replace(userId, '-', '')), name, [limit] FROM categories",
+                    "DROP TABLE categories",
+                    "ALTER TABLE categories_new RENAME TO categories",
+                    "CREATE INDEX idx_categories_userId_name ON categories (userId, name)",
+                    "CREATE TABLE operations_new (id BLOB PRIMARY KEY, accountId BLOB, categoryId BLOB, " +
+                            "type INTEGER NOT NULL, amount INTEGER NOT NULL, date TEXT)",
+                    "INSERT INTO operations_new (id, accountId, categoryId, type, amount, date) " +
+                            "SELECT unhex(replace(id, '-', '')), unhex(replace(accountId, '-', '')), " +
+                            "unhex(replace(categoryId, '-', '')), CASE type WHEN 'Доход' THEN 0 ELSE 1 END, amount, date " +
+                            "FROM operations",
+                    "DROP TABLE operations",
+                    "ALTER TABLE operations_new RENAME TO operations",
+                    "CREATE INDEX idx_operations_accountId_date ON operations (accountId, date, id)",
+                    "CREATE TABLE category_spending_new (accountId BLOB NOT NULL, categoryId BLOB NOT NULL, " +
+                            "spent INTEGER NOT NULL DEFAULT 0, PRIMARY KEY (accountId, categoryId))",
+                    "INSERT INTO category_spending_new (accountId, categoryId, spent) " +
+                            "SELECT unhex(replace(accountId, '-', '')), unhex(replace(categoryId, '-', '')), spent " +
+                            "FROM category_spending",
+                    "DROP TABLE category_spending",
+                    "ALTER TABLE category_spending_new RENAME TO category_spending",
+                    spendingInsertTrigger("1"),
+                    spendingDeleteTrigger("1"),
+                    spendingUpdateTrigger("1")
+            )),
+            new Migration(7, "Store operation dates as epoch milliseconds", List.of(
+                    "CREATE TABLE operations_new (id BLOB PRIMARY KEY, accountId BLOB, categoryId BLOB, " +
+                            "type INTEGER NOT NULL, amount INTEGER NOT NULL, date INTEGER NOT NULL)",
+                    "INSERT INTO operations_new (id, accountId, categoryId, type, amount, date) " +
+                            "SELECT id, accountId, categoryId, type, amount, " +
+                            "IFNULL(CAST(strftime('%s', date, 'utc') AS INTEGER) * 1000, 0) FROM operations",
+                    "DROP TABLE operations",
+                    "ALTER TABLE operations_new RENAME TO operations",
+                    "CREATE INDEX idx_operations_accountId_date ON operations (accountId, date, id)",
+                    spendingInsertTrigger("1"),
+                    spendingDeleteTrigger("1"),
+                    spendingUpdateTrigger("1")
+            )),
+            new Migration(8, "Add daily and monthly operation rollups", List.of(
+                    "CREATE TABLE rollup_daily (accountId BLOB NOT NULL, categoryId BLOB NOT NULL, period TEXT NOT NULL, " +
+                            "income INTEGER NOT NULL DEFAULT 0, expense INTEGER NOT NULL DEFAULT 0, " +
+                            "operations INTEGER NOT NULL DEFAULT 0, PRIMARY KEY (accountId, period, categoryId))",
+                    "CREATE TABLE rollup_monthly (accountId BLOB NOT NULL, categoryId BLOB NOT NULL, period TEXT NOT NULL, " +
+                            "income INTEGER NOT NULL DEFAULT 0, expense INTEGER NOT NULL DEFAULT 0, " +
+                            "operations INTEGER NOT NULL DEFAULT 0, PRIMARY KEY (accountId, period, categoryId))",
+                    rollupBackfill("rollup_daily", DAILY_BUCKET),
+                    rollupBackfill("rollup_monthly", MONTHLY_BUCKET),
+                    rollupInsertTrigger("rollup_daily", DAILY_BUCKET),
+                    rollupDeleteTrigger("rollup_daily", DAILY_BUCKET),
+                    rollupUpdateTrigger("rollup_daily", DAILY_BUCKET),
+                    rollupInsertTrigger("rollup_monthly", MONTHLY_BUCKET),
+                    rollupDeleteTrigger("rollup_monthly", MONTHLY_BUCKET),
+                    rollupUpdateTrigger("rollup_monthly", MONTHLY_BUCKET)
+            )),
+            new Migration(9, "Add operation notes with a full-text index", List.of(
+                    "ALTER TABLE operations ADD COLUMN note TEXT",
+                    ftsTable("rowid"),
+                    ftsInsertTrigger("rowid"),
+                    ftsDeleteTrigger("rowid"),
+                    ftsUpdateTrigger("rowid")
+            )),
+            new Migration(10, "Add optimistic lock version to accounts", List.of(
+                    "ALTER TABLE accounts ADD COLUMN version INTEGER NOT NULL DEFAULT 0"
+            )),
+            new Migration(11, "Add append-only balance ledger and account snapshots", List.of(
+                    "CREATE TABLE ledger_entries (seq INTEGER PRIMARY KEY AUTOINCREMENT, accountId BLOB NOT NULL, " +
+                            "delta INTEGER NOT NULL, createdAt INTEGER NOT NULL)",
+                    "CREATE INDEX idx_ledger_entries_accountId_seq ON ledger_entries (accountId, seq, delta)",
+                    "INSERT INTO ledger_entries (accountId, delta, createdAt) " +
+                            "SELECT accountId, " + LEDGER_DELTA.replace("{0}.", "") + ", date FROM operations " +
+                            "WHERE accountId IS NOT NULL ORDER BY date, id",
+                    "CREATE TABLE account_snapshots (accountId BLOB PRIMARY KEY, balance INTEGER NOT NULL, " +
+                            "lastSeq INTEGER NOT NULL, takenAt INTEGER NOT NULL)",
+                    ledgerInsertTrigger(),
+                    ledgerDeleteTrigger(),
+                    ledgerUpdateTrigger()
+            )),
+            new Migration(12, "Add transfer log for cross-shard transfers", List.of(
+                    "CREATE TABLE transfer_log (id BLOB PRIMARY KEY, senderShard INTEGER NOT NULL, senderAccountId BLOB NOT NULL, " +
+                            "debitOperationId BLOB NOT NULL, recipientShard INTEGER NOT NULL, recipientAccountId BLOB NOT NULL, " +
+                            "creditOperationId BLOB NOT NULL, categoryId BLOB, amount INTEGER NOT NULL, date INTEGER NOT NULL, " +
+                            "state TEXT NOT NULL, updatedAt INTEGER NOT NULL)",
+                    "CREATE INDEX idx_transfer_log_state ON transfer_log (state)"
+            )),
+            new Migration(13, "Enforce unique usernames and category names", List.of(
+                    "UPDATE users SET username = username || '#' || rowid WHERE EXISTS " +
+                            "(SELECT 1 FROM users k WHERE k.username = users.username AND k.rowid < users.rowid)",
+                    "UPDATE operations SET categoryId = (SELECT k.id FROM categories d JOIN categories k " +
+                            "ON k.userId = d.userId AND k.name = d.name WHERE d.id = operations.categoryId " +
+                            "ORDER BY k.rowid LIMIT 1) WHERE categoryId IN (SELECT d.id FROM categories d WHERE EXISTS " +
+                            "(SELECT 1 FROM categories k WHERE k.userId = d.userId AND k.name = d.name AND k.rowid < d.rowid))",
+                    "DELETE FROM categories WHERE EXISTS (SELECT 1 FROM categories k " +
+                            "WHERE k.userId = categories.userId AND k.name = categories.name AND k.rowid < categories.rowid)",
+                    "DELETE FROM category_spending WHERE spent = 0 AND categoryId NOT IN (SELECT id FROM categories)",
+                    "DROP INDEX IF EXISTS idx_users_username",
+                    "CREATE UNIQUE INDEX idx_users_username ON users (username)",
+                    "DROP INDEX IF EXISTS idx_categories_userId_name",
+                    "CREATE UNIQUE INDEX idx_categories_userId_name ON categories (userId, name)"
+            )),
+            new Migration(14, "Record the recipient transfer category of cross-shard transfers", List.of(
+                    "ALTER TABLE transfer_log ADD COLUMN recipientCategoryId BLOB"
+            )),
+            new Migration(15, "Key the full-text index on an explicit operation sequence", List.of(
+                    "DROP TABLE operations_fts",
+                    "CREATE TABLE operations_new (seq INTEGER PRIMARY KEY, id BLOB NOT NULL UNIQUE, accountId BLOB, " +
+                            "categoryId BLOB, type INTEGER NOT NULL, amount INTEGER NOT NULL, date INTEGER NOT NULL, note TEXT)",
+                    "INSERT INTO operations_new (seq, id, accountId, categoryId, type, amount, date, note) " +
+                            "SELECT rowid, id, accountId, categoryId, type, amount, date, note FROM operations",
+                    "DROP TABLE operations",
+                    "ALTER TABLE operations_new RENAME TO operations",
+                    "CREATE INDEX idx_operations_accountId_date ON operations (accountId, date, id)",
+                    spendingInsertTrigger("1"),
+                    spendingDeleteTrigger("1"),
+                    spendingUpdateTrigger("1"),
+                    rollupInsertTrigger("rollup_daily", DAILY_BUCKET),
+                    rollupDeleteTrigger("rollup_daily", DAILY_BUCKET),
+                    rollupUpdateTrigger("rollup_daily", DAILY_BUCKET),
+                    rollupInsertTrigger("rollup_monthly", MONTHLY_BUCKET),
+                    rollupDeleteTrigger("rollup_monthly", MONTHLY_BUCKET),
+                    rollupUpdateTrigger("rollup_monthly", MONTHLY_BUCKET),
+                    ledgerInsertTrigger(),
+                    ledgerDeleteTrigger(),
+                    ledgerUpdateTrigger(),
+                    ftsTable("seq"),
+                    ftsInsertTrigger("seq"),
+                    ftsDeleteTrigger("seq"),
+                    ftsUpdateTrigger("seq"),
+                    "INSERT INTO operations_fts (operations_fts) VALUES ('rebuild')"
+            ))
+    );
+
+    private Migrations() {
+    }
+
+    private static String bucket(String bucketPattern, String row) {
+        return bucketPattern.replace("{0}", row);
+    }
+
+    private static String ledgerAppend(String row, String sign) {
+        return "INSERT INTO ledger_entries (accountId, delta, createdAt) " +
+                "SELECT " + row + ".accountId, " + sign + "(" + LEDGER_DELTA.replace("{0}", row) + "), " +
+                "CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER) WHERE " + row + ".accountId IS NOT NULL;";
+    }
+
+    private static String ledgerInsertTrigger() {
+        return "CREATE TRIGGER ledger_insert AFTER INSERT ON operations BEGIN " +
+                ledgerAppend("NEW", "") + " END";
+    }
+
+    private static String ledgerDeleteTrigger() {
+        return "CREATE TRIGGER ledger_delete AFTER DELETE ON operations BEGIN " +
+                ledgerAppend("OLD", "-") + " END";
+    }
+
+    private static String ledgerUpdateTrigger() {
+        return "CREATE TRIGGER ledger_update AFTER UPDATE OF accountId, type, amount ON operations BEGIN " +
+                ledgerAppend("OLD", "-") + " " + ledgerAppend("NEW", "") + " END";
+    }
+
+    private static String ftsTable(String key) {
+        return "CREATE VIRTUAL TABLE operations_fts USING fts5(note, content='operations', content_rowid='" + key + "', " +
+                "tokenize='unicode61 remove_diacritics 2')";
+    }
+
+    private static String ftsInsertTrigger(String key) {
+        return "CREATE TRIGGER operations_fts_insert AFTER INSERT ON operations WHEN NEW.note IS NOT NULL BEGIN " +
+                "INSERT INTO operations_fts (rowid, note) VALUES (NEW." + key + ", NEW.note); END";
+    }
+
+    private static String ftsDeleteTrigger(String key) {
+        return "CREATE TRIGGER operations_fts_delete AFTER DELETE ON operations WHEN OLD.note IS NOT NULL BEGIN " +
+                "INSERT INTO operations_fts (operations_fts, rowid, note) VALUES ('delete', OLD." + key + ", OLD.note); END";
+    }
+
+    private static String ftsUpdateTrigger(String key) {
+        return "CREATE TRIGGER operations_fts_update AFTER UPDATE OF note ON operations BEGIN " +
+                "INSERT INTO operations_fts (operations_fts, rowid, note) " +
+                "SELECT 'delete', OLD." + key + ", OLD.note WHERE OLD.note IS NOT NULL; " +
+                "INSERT INTO operations_fts (rowid, note) SELECT NEW." + key + ", NEW.note WHERE NEW.note IS NOT NULL; END";
+    }
+
+    private static String rollupBackfill(String table, String bucketPattern) {
+        return "INSERT INTO " + table + " (accountId, categoryId, period, income, expense, operations) " +
+                "SELECT accountId, IFNULL(categoryId, x''), " + bucket(bucketPattern, "operations") + ", " +
+                "SUM(CASE type WHEN 0 THEN amount ELSE 0 END), SUM(CASE type WHEN 1 THEN amount ELSE 0 END), COUNT(*) " +
+                "FROM operations GROUP BY 1, 2, 3";
+    }
+
+    private static String rollupUpsert(String table, String bucketPattern, String row) {
+        return "INSERT INTO " + table + " (accountId, categoryId, period, income, expense, operations) " +
+                "VALUES (" + row + ".accountId, IFNULL(" + row + ".categoryId, x''), " + bucket(bucketPattern, row) + ", " +
+                "CASE " + row + ".type WHEN 0 THEN " + row + ".amount ELSE 0 END, " +
+                "CASE " + row + ".type WHEN 1 THEN " + row + ".amount ELSE 0 END, 1) " +
+                "ON CONFLICT (accountId, period, categoryId) DO UPDATE SET income = income + excluded.income, " +
+                "expense = expense + excluded.expense, operations = operations + 1;";
+    }
+
+    private static String rollupSubtract(String table, String bucketPattern, String row) {
+        return "UPDATE " + table + " SET " +
+                "income = income - CASE " + row + ".type WHEN 0 THEN " + row + ".amount ELSE 0 END, " +
+                "expense = expense - CASE " + row + ".type WHEN 1 THEN " + row + ".amount ELSE 0 END, " +
+                "operations = operations - 1 " +
+                "WHERE accountId = " + row + ".accountId AND categoryId = IFNULL(" + row + ".categoryId, x'') " +
+                "AND period = " + bucket(bucketPattern, row) + ";";
+    }
+
+    private static String rollupInsertTrigger(String table, String bucketPattern) {
+        return "CREATE TRIGGER " + table + "_insert AFTER INSERT ON operations BEGIN " +
+                rollupUpsert(table, bucketPattern, "NEW") + " END";
+    }
+
+    private static String rollupDeleteTrigger(String table, String bucketPattern) {
+        return "CREATE TRIGGER " + table + "_delete AFTER DELETE ON operations BEGIN " +
+                rollupSubtract(table, bucketPattern, "OLD") + " END";
+    }
+
+    private static String rollupUpdateTrigger(String table, String bucketPattern) {
+        return "CREATE TRIGGER " + table + "_update AFTER UPDATE OF accountId, categoryId, type, amount, date " +
+                "ON operations BEGIN " + rollupSubtract(table, bucketPattern, "OLD") + " " +
+                rollupUpsert(table, bucketPattern, "NEW") + " END";
+    }
+
+    private static String spendingInsertTrigger(String expenseType) {
+        return "CREATE TRIGGER operations_spending_insert AFTER INSERT ON operations " +
+                "WHEN NEW.type = " + expenseType + " AND NEW.categoryId IS NOT NULL BEGIN " +
+                "INSERT INTO category_spending (accountId, categoryId, spent) " +
+                "VALUES (NEW.accountId, NEW.categoryId, NEW.amount) " +
+                "ON CONFLICT (accountId, categoryId) DO UPDATE SET spent = spent + excluded.spent; END";
+    }
+
+    private static String spendingDeleteTrigger(String expenseType) {
+        return "CREATE TRIGGER operations_spending_delete AFTER DELETE ON operations " +
+                "WHEN OLD.type = " + expenseType + " AND OLD.categoryId IS NOT NULL BEGIN " +
+                "UPDATE category_spending SET spent = spent - OLD.amount " +
+                "WHERE accountId = OLD.accountId AND categoryId = OLD.categoryId; END";
+    }
+
+    private static String spendingUpdateTrigger(String expenseType) {
+        return "CREATE TRIGGER operations_spending_update AFTER UPDATE OF accountId, categoryId, type, amount " +
+                "ON operations BEGIN " +
+                "UPDATE category_spending SET spent = spent - OLD.amount " +
+                "WHERE OLD.type = " + expenseType + " AND accountId = OLD.accountId AND categoryId = OLD.categoryId; " +
+                "INSERT INTO category_spending (accountId, categoryId, spent) " +
+                "SELECT NEW.accountId, NEW.categoryId, NEW.amount " +
+                "WHERE NEW.type = " + expenseType + " AND NEW.categoryId IS NOT NULL " +
+                "ON CONFLICT (accountId, categoryId) DO UPDATE SET spent = spent + excluded.spent; END";
+    }
+}
@@ -0,0 +1,11 @@
+package storage;
+
+import model.Operation;
+
+import java.util.UUID;
+
+public record OperationCursor(long date, UUID id) {
+    public static OperationCursor after(Operation operation) {
+        return new OperationCursor(operation.date().toEpochMilli(), operation.id());
+    }
+}
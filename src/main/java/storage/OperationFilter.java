@@ -0,0 +1,33 @@
+package storage;
+
+import model.Operation;
+import model.OperationType;
+
+import java.time.Instant;
+
+public record OperationFilter(OperationType type, String categoryName, boolean withoutCategory, Instant from, Instant to) {
+    public static OperationFilter all() {
+        return new OperationFilter(null, null, false, null, null);
+    }
+
+    public static OperationFilter between(Instant from, Instant to) {
+        return new OperationFilter(null, null, false, from, to);
+    }
+
+    public boolean matches(Operation operation, String operationCategoryName) {
+        if (type != null && operation.type() != type) {
+            return false;
+        }
+        if (withoutCategory && operation.categoryId() != null) {
+            return false;
+        }
+        if (!withoutCategory && categoryName != null && !categoryName.equals(operationCategoryName)) {
+            return false;
+        }
+        var date = operation.date().toEpochMilli();
+        if (from != null && date < from.toEpochMilli()) {
+            return false;
+        }
+        return to == null || date < to.toEpochMilli();
+    }
+}
@@ -1,52 +1,99 @@
 package storage;
 
 import model.Operation;
+import model.OperationAdded;
+import model.OperationEntry;
+import model.OperationSum;
+import model.OperationType;
+import utils.DatabaseConfig;
 import utils.DatabaseConnection;
+import utils.EventBus;
+import utils.PooledConnection;
+import utils.UuidCodec;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class OperationStorage implements StorageInterface<Operation> {
     private static final Logger logger = Logger.getLogger(OperationStorage.class.getName());
-    private static final String DATABASE_URL = "jdbc:sqlite:wallet.db";
+    private static final int EXPORT_FETCH_SIZE = 500;
     private final String tableName;
+    private final DatabaseConnection databaseConnection;
 
     public OperationStorage() {
-        this.tableName = "operations";
-        createTableIfNotExists();
+        this(DatabaseConfig.getDefaultConnection());
     }
 
-    private void createTableIfNotExists() {
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var stmt = connection.createStatement()) {
-            var sql = "CREATE TABLE IF NOT EXISTS " + tableName + " (id TEXT PRIMARY KEY, accountId TEXT, categoryId TEXT, type TEXT, amount REAL, date TEXT)";
-            stmt.executeUpdate(sql);
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error creating table", e);
-        }
+    public OperationStorage(DatabaseConnection databaseConnection) {
+        this.tableName = "operations";
+        this.databaseConnection = databaseConnection;
     }
 
     @Override
     public void save(Operation operation) {
-        var sql = "INSERT INTO " + tableName + " (id, accountId, categoryId, type, amount, date) VALUES (?, ?, ?, ?, ?, ?)";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, operation.id().toString());
-            pstmt.setString(2, operation.accountId().toString());
-            pstmt.setString(3, operation.categoryId() != null ? operation.categoryId().toString() : null);
-            pstmt.setString(4, operation.type());
-            pstmt.setDouble(5, operation.amount());
-            pstmt.setString(6, operation.date());
-            pstmt.executeUpdate();
+        try (var connection = databaseConnection.getConnection()) {
+            save(connection, operation);
+            EventBus.getInstance().publish(new OperationAdded(operation));
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error saving operation", e);
         }
     }
 
+    public void save(PooledConnection connection, Operation operation) throws SQLException {
+        var pstmt = connection.prepareStatement(insertSql());
+        bindInsert(pstmt, operation);
+        pstmt.executeUpdate();
+    }
+
+    public void saveBatch(PooledConnection connection, List<Operation> operations) throws SQLException {
+        var pstmt = connection.prepareStatement(insertSql());
+        for (var operation : operations) {
+            bindInsert(pstmt, operation);
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+    }
+
+    public boolean exists(PooledConnection connection, UUID id) throws SQLException {
+        var pstmt = connection.prepareStatement("SELECT 1 FROM " + tableName + " WHERE id = ?");
+        pstmt.setBytes(1, UuidCodec.toBytes(id));
+        try (var rs = pstmt.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    public boolean delete(PooledConnection connection, UUID id) throws SQLException {
+        var pstmt = connection.prepareStatement("DELETE FROM " + tableName + " WHERE id = ?");
+        pstmt.setBytes(1, UuidCodec.toBytes(id));
+        return pstmt.executeUpdate() == 1;
+    }
+
+    private String insertSql() {
+        return "INSERT INTO " + tableName + " (id, accountId, categoryId, type, amount, date, note) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    private void bindInsert(PreparedStatement pstmt, Operation operation) throws SQLException {
+        pstmt.setBytes(1, UuidCodec.toBytes(operation.id()));
+        pstmt.setBytes(2, UuidCodec.toBytes(operation.accountId()));
+        pstmt.setBytes(3, UuidCodec.toBytes(operation.categoryId()));
+        pstmt.setInt(4, operation.type().getCode());
+        pstmt.setLong(5, operation.amount());
+        pstmt.setLong(6, operation.date().toEpochMilli());
+        pstmt.setString(7, operation.note());
+    }
+
     @Override
     public List<Operation> loadAll() {
         return loadAllByAccountId(null);
@@ -54,23 +101,23 @@ public class OperationStorage implements StorageInterface<Operation> {
 
     public List<Operation> loadAllByAccountId(UUID accountId) {
         var operations = new ArrayList<Operation>();
-        var sql = "SELECT id, accountId, categoryId, type, amount, date FROM " + tableName;
+        var sql = "SELECT id, accountId, categoryId, type, amount, date, note FROM " + tableName;
         if (accountId != null) {
             sql += " WHERE accountId = ?";
         }
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
             if (accountId != null) {
-                pstmt.setString(1, accountId.toString());
+                pstmt.setBytes(1, UuidCodec.toBytes(accountId));
             }
             try (var rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    var operationId = UUID.fromString(rs.getString("id"));
-                    var categoryId = rs.getString("categoryId") != null ? UUID.fromString(rs.getString("categoryId")) : null;
-                    var type = rs.getString("type");
-                    var amount = rs.getDouble("amount");
-                    var date = rs.getString("date");
-                    operations.add(new Operation(operationId, accountId, categoryId, type, amount, date));
+                    var operationId = UuidCodec.fromBytes(rs.getBytes("id"));
+                    var categoryId = UuidCodec.fromBytes(rs.getBytes("categoryId"));
+                    var type = OperationType.fromCode(rs.getInt("type"));
+                    var amount = rs.getLong("amount");
+                    var date = Instant.ofEpochMilli(rs.getLong("date"));
+                    operations.add(new Operation(operationId, accountId, categoryId, type, amount, date, rs.getString("note")));
                 }
             }
         } catch (SQLException e) {
@@ -79,21 +126,261 @@ public class OperationStorage implements StorageInterface<Operation> {
         return operations;
     }
 
+    public boolean forEachByAccountId(UUID accountId, Consumer<OperationEntry> consumer) {
+        var sql = "SELECT o.id, o.categoryId, o.type, o.amount, o.date, o.note, c.name AS categoryName FROM " + tableName + " o" +
+                " LEFT JOIN categories c ON c.id = o.categoryId WHERE o.accountId = ? ORDER BY o.date, o.id";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setFetchSize(EXPORT_FETCH_SIZE);
+            pstmt.setBytes(1, UuidCodec.toBytes(accountId));
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    var operation = new Operation(UuidCodec.fromBytes(rs.getBytes("id")), accountId,
+                            UuidCodec.fromBytes(rs.getBytes("categoryId")), OperationType.fromCode(rs.getInt("type")),
+                            rs.getLong("amount"), Instant.ofEpochMilli(rs.getLong("date")), rs.getString("note"));
+                    consumer.accept(new OperationEntry(operation, rs.getString("categoryName")));
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error streaming operations by accountId", e);
+            return false;
+        }
+    }
+
+    public List<OperationEntry> loadPage(UUID accountId, OperationFilter filter, OperationCursor after, int pageSize) {
+        var entries = new ArrayList<OperationEntry>(pageSize);
+        var sql = "SELECT o.id, o.categoryId, o.type, o.amount, o.date, o.note, c.name AS categoryName FROM " + tableName + " o" +
+                buildFilterClause(filter) + (after != null ? " AND (o.date, o.id) < (?, ?)" : "") +
+                " ORDER BY o.date DESC, o.id DESC LIMIT ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            var index = bindFilter(pstmt, accountId, filter);
+            if (after != null) {
+                pstmt.setLong(index++, after.date());
+                pstmt.setBytes(index++, UuidCodec.toBytes(after.id()));
+            }
+            pstmt.setInt(index, pageSize);
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    var operationId = UuidCodec.fromBytes(rs.getBytes("id"));
+                    var categoryId = UuidCodec.fromBytes(rs.getBytes("categoryId"));
+                    var type = OperationType.fromCode(rs.getInt("type"));
+                    var amount = rs.getLong("amount");
+                    var date = Instant.ofEpochMilli(rs.getLong("date"));
+                    var operation = new Operation(operationId, accountId, categoryId, type, amount, date, rs.getString("note"));
+                    entries.add(new OperationEntry(operation, rs.getString("categoryName")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading operation page by accountId", e);
+        }
+        return entries;
+    }
+
+    public OperationEntry loadEntry(UUID accountId, UUID id) {
+        var sql = "SELECT o.id, o.categoryId, o.type, o.amount, o.date, o.note, c.name AS categoryName FROM " + tableName + " o" +
+                " LEFT JOIN categories c ON c.id = o.categoryId WHERE o.id = ? AND o.accountId = ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(id));
+            pstmt.setBytes(2, UuidCodec.toBytes(accountId));
+            try (var rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    var operation = new Operation(id, accountId, UuidCodec.fromBytes(rs.getBytes("categoryId")),
+                            OperationType.fromCode(rs.getInt("type")), rs.getLong("amount"),
+                            Instant.ofEpochMilli(rs.getLong("date")), rs.getString("note"));
+                    return new OperationEntry(operation, rs.getString("categoryName"));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading operation entry", e);
+        }
+        return null;
+    }
+
+    public List<Operation> loadRange(UUID accountId, Instant from, Instant to) {
+        var operations = new ArrayList<Operation>();
+        var sql = "SELECT id, categoryId, type, amount, date, note FROM " + tableName +
+                " WHERE accountId = ? AND date >= ? AND date < ? ORDER BY date, id";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(accountId));
+            pstmt.setLong(2, from.toEpochMilli());
+            pstmt.setLong(3, to.toEpochMilli());
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    var operationId = UuidCodec.fromBytes(rs.getBytes("id"));
+                    var categoryId = UuidCodec.fromBytes(rs.getBytes("categoryId"));
+                    var type = OperationType.fromCode(rs.getInt("type"));
+                    var amount = rs.getLong("amount");
+                    var date = Instant.ofEpochMilli(rs.getLong("date"));
+                    operations.add(new Operation(operationId, accountId, categoryId, type, amount, date, rs.getString("note")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading operations by date range", e);
+        }
+        return operations;
+    }
+
+    public List<Operation> loadLastDays(UUID accountId, int days) {
+        var now = Instant.now();
+        return loadRange(accountId, now.minus(Duration.ofDays(days)), now.plusMillis(1));
+    }
+
+    public List<Operation> loadMonth(UUID accountId, YearMonth month) {
+        var zone = ZoneId.systemDefault();
+        var from = month.atDay(1).atStartOfDay(zone).toInstant();
+        var to = month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant();
+        return loadRange(accountId, from, to);
+    }
+
+    public List<OperationEntry> search(UUID accountId, String text, int offset, int pageSize) {
+        var entries = new ArrayList<OperationEntry>(pageSize);
+        var query = toMatchQuery(text);
+        if (query.isEmpty()) {
+            return entries;
+        }
+        var sql = "SELECT o.id, o.categoryId, o.type, o.amount, o.date, o.note, c.name AS categoryName " +
+                "FROM operations_fts JOIN " + tableName + " o ON o.seq = operations_fts.rowid " +
+                "LEFT JOIN categories c ON c.id = o.categoryId " +
+                "WHERE operations_fts MATCH ? AND o.accountId = ? " +
+                "ORDER BY bm25(operations_fts), o.date DESC LIMIT ? OFFSET ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setString(1, query);
+            pstmt.setBytes(2, UuidCodec.toBytes(accountId));
+            pstmt.setInt(3, pageSize);
+            pstmt.setInt(4, offset);
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    var operationId = UuidCodec.fromBytes(rs.getBytes("id"));
+                    var categoryId = UuidCodec.fromBytes(rs.getBytes("categoryId"));
+                    var type = OperationType.fromCode(rs.getInt("type"));
+                    var amount = rs.getLong("amount");
+                    var date = Instant.ofEpochMilli(rs.getLong("date"));
+                    var operation = new Operation(operationId, accountId, categoryId, type, amount, date, rs.getString("note"));
+                    entries.add(new OperationEntry(operation, rs.getString("categoryName")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error searching operations", e);
+        }
+        return entries;
+    }
+
+    public void rebuildSearchIndex() {
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement("INSERT INTO operations_fts (operations_fts) VALUES ('rebuild')");
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error rebuilding operation search index", e);
+        }
+    }
+
+    private String toMatchQuery(String text) {
+        var query = new StringBuilder();
+        for (var term : text.trim().split("\\s+")) {
+            if (term.isEmpty()) continue;
+            if (!query.isEmpty()) query.append(' ');
+            query.append('"').append(term.replace("\"", "\"\"")).append("\"*");
+        }
+        return query.toString();
+    }
+
+    public Map<OperationType, Long> sumByType(UUID accountId, OperationFilter filter) {
+        var totals = new HashMap<OperationType, Long>();
+        var sql = "SELECT o.type, SUM(o.amount) AS total FROM " + tableName + " o" + buildFilterClause(filter) +
+                " GROUP BY o.type";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            bindFilter(pstmt, accountId, filter);
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.put(OperationType.fromCode(rs.getInt("type")), rs.getLong("total"));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error summing operations by type", e);
+        }
+        return totals;
+    }
+
+    public List<OperationSum> sumByTypeAndCategory(UUID accountId, OperationFilter filter) {
+        var sums = new ArrayList<OperationSum>();
+        var sql = "SELECT o.type, o.categoryId, SUM(o.amount) AS total FROM " + tableName + " o" +
+                buildFilterClause(filter) + " GROUP BY o.type, o.categoryId";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            bindFilter(pstmt, accountId, filter);
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    sums.add(new OperationSum(
+                            OperationType.fromCode(rs.getInt("type")),
+                            UuidCodec.fromBytes(rs.getBytes("categoryId")),
+                            rs.getLong("total")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error summing operations by type and category", e);
+        }
+        return sums;
+    }
+
+    private String buildFilterClause(OperationFilter filter) {
+        var clause = new StringBuilder(" LEFT JOIN categories c ON c.id = o.categoryId WHERE o.accountId = ?");
+        if (filter.type() != null) {
+            clause.append(" AND o.type = ?");
+        }
+        if (filter.withoutCategory()) {
+            clause.append(" AND c.id IS NULL");
+        } else if (filter.categoryName() != null) {
+            clause.append(" AND c.name = ?");
+        }
+        if (filter.from() != null) {
+            clause.append(" AND o.date >= ?");
+        }
+        if (filter.to() != null) {
+            clause.append(" AND o.date < ?");
+        }
+        return clause.toString();
+    }
+
+    private int bindFilter(PreparedStatement pstmt, UUID accountId, OperationFilter filter) throws SQLException {
+        var index = 1;
+        pstmt.setBytes(index++, UuidCodec.toBytes(accountId));
+        if (filter.type() != null) {
+            pstmt.setInt(index++, filter.type().getCode());
+        }
+        if (!filter.withoutCategory() && filter.categoryName() != null) {
+            pstmt.setString(index++, filter.categoryName());
+        }
+        if (filter.from() != null) {
+            pstmt.setLong(index++, filter.from().toEpochMilli());
+        }
+        if (filter.to() != null) {
+            pstmt.setLong(index++, filter.to().toEpochMilli());
+        }
+        return index;
+    }
+
     @Override
     public Operation load(UUID id) {
-        var sql = "SELECT id, accountId, categoryId, type, amount, date FROM " + tableName + " WHERE id = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id.toString());
+        var sql = "SELECT id, accountId, categoryId, type, amount, date, note FROM " + tableName + " WHERE id = ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(id));
             try (var rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    var operationId = UUID.fromString(rs.getString("id"));
-                    var accountId = UUID.fromString(rs.getString("accountId"));
-                    var categoryId = rs.getString("categoryId") != null ? UUID.fromString(rs.getString("categoryId")) : null;
-                    var type = rs.getString("type");
-                    var amount = rs.getDouble("amount");
-                    var date = rs.getString("date");
-                    return new Operation(operationId, accountId, categoryId, type, amount, date);
+                    var operationId = UuidCodec.fromBytes(rs.getBytes("id"));
+                    var accountId = UuidCodec.fromBytes(rs.getBytes("accountId"));
+                    var categoryId = UuidCodec.fromBytes(rs.getBytes("categoryId"));
+                    var type = OperationType.fromCode(rs.getInt("type"));
+                    var amount = rs.getLong("amount");
+                    var date = Instant.ofEpochMilli(rs.getLong("date"));
+                    return new Operation(operationId, accountId, categoryId, type, amount, date, rs.getString("note"));
                 }
             }
         } catch (SQLException e) {
@@ -104,14 +391,15 @@ public class OperationStorage implements StorageInterface<Operation> {
 
     @Override
     public void update(Operation operation) {
-        var sql = "UPDATE " + tableName + " SET type = ?, amount = ?, categoryId = ?, date = ? WHERE id = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, operation.type());
-            pstmt.setDouble(2, operation.amount());
-            pstmt.setString(3, operation.categoryId() != null ? operation.categoryId().toString() : null);
-            pstmt.setString(4, operation.date());
-            pstmt.setString(5, operation.id().toString());
+        var sql = "UPDATE " + tableName + " SET type = ?, amount = ?, categoryId = ?, date = ?, note = ? WHERE id = ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setInt(1, operation.type().getCode());
+            pstmt.setLong(2, operation.amount());
+            pstmt.setBytes(3, UuidCodec.toBytes(operation.categoryId()));
+            pstmt.setLong(4, operation.date().toEpochMilli());
+            pstmt.setString(5, operation.note());
+            pstmt.setBytes(6, UuidCodec.toBytes(operation.id()));
             pstmt.executeUpdate();
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating operation", e);
@@ -121,9 +409,9 @@ public class OperationStorage implements StorageInterface<Operation> {
     @Override
     public void delete(UUID id) {
         var sql = "DELETE FROM " + tableName + " WHERE id = ?";
-        try (var connection = DatabaseConnection.getInstance(DATABASE_URL).getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id.toString());
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(id));
             pstmt.executeUpdate();
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error deleting operation", e);
@@ -0,0 +1,87 @@
+package storage;
+
+import model.PeriodTotal;
+import utils.DatabaseConfig;
+import utils.DatabaseConnection;
+import utils.UuidCodec;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class RollupStorage {
+    private static final Logger logger = Logger.getLogger(RollupStorage.class.getName());
+    private static final String DAILY_TABLE = "rollup_daily";
+    private static final String MONTHLY_TABLE = "rollup_monthly";
+    private final DatabaseConnection databaseConnection;
+
+    public RollupStorage() {
+        this(DatabaseConfig.getDefaultConnection());
+    }
+
+    public RollupStorage(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+    public List<PeriodTotal> loadDaily(UUID accountId, LocalDate from, LocalDate to) {
+        return loadTotals(DAILY_TABLE, accountId, from.toString(), to.toString());
+    }
+
+    public List<PeriodTotal> loadMonthly(UUID accountId, YearMonth from, YearMonth to) {
+        return loadTotals(MONTHLY_TABLE, accountId, from.toString(), to.toString());
+    }
+
+    public List<PeriodTotal> loadDailyByCategory(UUID accountId, LocalDate from, LocalDate to) {
+        return loadTotalsByCategory(DAILY_TABLE, accountId, from.toString(), to.toString());
+    }
+
+    public List<PeriodTotal> loadMonthlyByCategory(UUID accountId, YearMonth from, YearMonth to) {
+        return loadTotalsByCategory(MONTHLY_TABLE, accountId, from.toString(), to.toString());
+    }
+
+    private List<PeriodTotal> loadTotals(String table, UUID accountId, String fromPeriod, String toPeriod) {
+        var totals = new ArrayList<PeriodTotal>();
+        var sql = "SELECT period, SUM(income) AS income, SUM(expense) AS expense FROM " + table +
+                " WHERE accountId = ? AND period BETWEEN ? AND ? GROUP BY period ORDER BY period";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(accountId));
+            pstmt.setString(2, fromPeriod);
+            pstmt.setString(3, toPeriod);
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new PeriodTotal(rs.getString("period"), null, rs.getLong("income"), rs.getLong("expense")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading rollup totals", e);
+        }
+        return totals;
+    }
+
+    private List<PeriodTotal> loadTotalsByCategory(String table, UUID accountId, String fromPeriod, String toPeriod) {
+        var totals = new ArrayList<PeriodTotal>();
+        var sql = "SELECT period, NULLIF(categoryId, x'') AS categoryId, income, expense FROM " + table +
+                " WHERE accountId = ? AND period BETWEEN ? AND ? AND operations > 0 ORDER BY period";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(accountId));
+            pstmt.setString(2, fromPeriod);
+            pstmt.setString(3, toPeriod);
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new PeriodTotal(rs.getString("period"), UuidCodec.fromBytes(rs.getBytes("categoryId")),
+                            rs.getLong("income"), rs.getLong("expense")));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading rollup totals by category", e);
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,74 @@
+package storage;
+
+import utils.DatabaseConnection;
+import utils.PooledConnection;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class SchemaMigrator {
+    private static final Logger logger = Logger.getLogger(SchemaMigrator.class.getName());
+    private static final String VERSION_TABLE = "schema_version";
+    private final DatabaseConnection databaseConnection;
+
+    public SchemaMigrator(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+    public void migrate() {
+        try {
+            createVersionTableIfNotExists();
+            var currentVersion = loadCurrentVersion();
+            for (var migration : Migrations.ALL) {
+                if (migration.version() > currentVersion) {
+                    apply(migration);
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error migrating schema", e);
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+    }
+
+    public int loadCurrentVersion() throws SQLException {
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement("SELECT MAX(version) FROM " + VERSION_TABLE);
+            try (var rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private void createVersionTableIfNotExists() throws SQLException {
+        try (var connection = databaseConnection.getConnection();
+             var stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE +
+                    " (version INTEGER PRIMARY KEY, description TEXT, appliedAt TEXT)");
+        }
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        databaseConnection.inTransaction(connection -> {
+            try (var stmt = connection.createStatement()) {
+                for (var sql : migration.statements()) {
+                    stmt.executeUpdate(sql);
+                }
+            }
+            recordVersion(connection, migration);
+            return null;
+        });
+        logger.log(Level.INFO, "Applied schema migration {0}: {1}",
+                new Object[]{migration.version(), migration.description()});
+    }
+
+    private void recordVersion(PooledConnection connection, Migration migration) throws SQLException {
+        var sql = "INSERT INTO " + VERSION_TABLE + " (version, description, appliedAt) VALUES (?, ?, ?)";
+        var pstmt = connection.prepareStatement(sql);
+        pstmt.setInt(1, migration.version());
+        pstmt.setString(2, migration.description());
+        pstmt.setString(3, LocalDateTime.now().toString());
+        pstmt.executeUpdate();
+    }
+}
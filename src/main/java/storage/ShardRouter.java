@@ -0,0 +1,82 @@
+package storage;
+
+import utils.DatabaseConfig;
+import utils.DatabaseConnection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class ShardRouter {
+    private static volatile ShardRouter instance;
+    private final DatabaseConnection directory;
+    private final List<DatabaseConnection> shards;
+
+    private ShardRouter(DatabaseConnection directory, List<DatabaseConnection> shards) {
+        this.directory = directory;
+        this.shards = shards;
+    }
+
+    public static ShardRouter getInstance() {
+        if (instance == null) {
+            synchronized (ShardRouter.class) {
+                if (instance == null) {
+                    instance = fromConfig();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public static ShardRouter of(DatabaseConnection database) {
+        return new ShardRouter(database, List.of(database));
+    }
+
+    private static ShardRouter fromConfig() {
+        var directory = DatabaseConfig.getDefaultConnection();
+        var shardCount = DatabaseConfig.getShardCount();
+        if (shardCount == 0) {
+            return new ShardRouter(directory, List.of(directory));
+        }
+        var shards = new ArrayList<DatabaseConnection>(shardCount);
+        for (var shard = 0; shard < shardCount; shard++) {
+            shards.add(DatabaseConnection.getInstance(DatabaseConfig.getShardUrl(shard)));
+        }
+        return new ShardRouter(directory, List.copyOf(shards));
+    }
+
+    public boolean isSharded() {
+        return shards.size() > 1 || shards.get(0) != directory;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(UUID userId) {
+        return (int) Math.floorMod(userId.getMostSignificantBits() ^ userId.getLeastSignificantBits(), (long) shards.size());
+    }
+
+    public DatabaseConnection forUser(UUID userId) {
+        return shards.get(shardOf(userId));
+    }
+
+    public DatabaseConnection forShard(int shard) {
+        return shards.get(shard);
+    }
+
+    public DatabaseConnection getDirectory() {
+        return directory;
+    }
+
+    public List<DatabaseConnection> getAllDatabases() {
+        var databases = new ArrayList<DatabaseConnection>();
+        databases.add(directory);
+        for (var shard : shards) {
+            if (shard != directory) {
+                databases.add(shard);
+            }
+        }
+        return databases;
+    }
+}
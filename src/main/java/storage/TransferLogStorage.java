@@ -0,0 +1,97 @@
+package storage;
+
+import model.TransferLogEntry;
+import model.TransferState;
+import utils.DatabaseConnection;
+import utils.UuidCodec;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class TransferLogStorage {
+    private static final Logger logger = Logger.getLogger(TransferLogStorage.class.getName());
+    private final String tableName;
+    private final DatabaseConnection databaseConnection;
+
+    public TransferLogStorage(DatabaseConnection databaseConnection) {
+        this.tableName = "transfer_log";
+        this.databaseConnection = databaseConnection;
+    }
+
+    public boolean save(TransferLogEntry entry) {
+        var sql = "INSERT INTO " + tableName + " (id, senderShard, senderAccountId, debitOperationId, recipientShard, " +
+                "recipientAccountId, creditOperationId, categoryId, recipientCategoryId, amount, date, state, updatedAt) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(entry.id()));
+            pstmt.setInt(2, entry.senderShard());
+            pstmt.setBytes(3, UuidCodec.toBytes(entry.senderAccountId()));
+            pstmt.setBytes(4, UuidCodec.toBytes(entry.debitOperationId()));
+            pstmt.setInt(5, entry.recipientShard());
+            pstmt.setBytes(6, UuidCodec.toBytes(entry.recipientAccountId()));
+            pstmt.setBytes(7, UuidCodec.toBytes(entry.creditOperationId()));
+            pstmt.setBytes(8, UuidCodec.toBytes(entry.categoryId()));
+            pstmt.setBytes(9, UuidCodec.toBytes(entry.recipientCategoryId()));
+            pstmt.setLong(10, entry.amount());
+            pstmt.setLong(11, entry.date().toEpochMilli());
+            pstmt.setString(12, entry.state().name());
+            pstmt.setLong(13, System.currentTimeMillis());
+            pstmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error saving transfer log entry", e);
+            return false;
+        }
+    }
+
+    public boolean updateState(UUID id, TransferState state) {
+        var sql = "UPDATE " + tableName + " SET state = ?, updatedAt = ? WHERE id = ?";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setString(1, state.name());
+            pstmt.setLong(2, System.currentTimeMillis());
+            pstmt.setBytes(3, UuidCodec.toBytes(id));
+            return pstmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error updating transfer log entry", e);
+            return false;
+        }
+    }
+
+    public List<TransferLogEntry> loadPending() {
+        var entries = new ArrayList<TransferLogEntry>();
+        var sql = "SELECT id, senderShard, senderAccountId, debitOperationId, recipientShard, recipientAccountId, " +
+                "creditOperationId, categoryId, recipientCategoryId, amount, date, state FROM " + tableName +
+                " WHERE state IN ('PREPARED', 'DEBITED') ORDER BY updatedAt";
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            try (var rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new TransferLogEntry(
+                            UuidCodec.fromBytes(rs.getBytes("id")),
+                            rs.getInt("senderShard"),
+                            UuidCodec.fromBytes(rs.getBytes("senderAccountId")),
+                            UuidCodec.fromBytes(rs.getBytes("debitOperationId")),
+                            rs.getInt("recipientShard"),
+                            UuidCodec.fromBytes(rs.getBytes("recipientAccountId")),
+                            UuidCodec.fromBytes(rs.getBytes("creditOperationId")),
+                            UuidCodec.fromBytes(rs.getBytes("categoryId")),
+                            UuidCodec.fromBytes(rs.getBytes("recipientCategoryId")),
+                            rs.getLong("amount"),
+                            Instant.ofEpochMilli(rs.getLong("date")),
+                            TransferState.valueOf(rs.getString("state"))
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error loading pending transfers", e);
+        }
+        return entries;
+    }
+}
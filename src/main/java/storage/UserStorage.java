@@ -1,7 +1,10 @@
 package storage;
 
 import model.User;
+import utils.DatabaseConfig;
 import utils.DatabaseConnection;
+import utils.PooledConnection;
+import utils.UuidCodec;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -16,51 +19,54 @@ public class UserStorage implements StorageInterface<User> {
     private final DatabaseConnection databaseConnection;
 
     public UserStorage() {
-        this.tableName = "users";
-        this.databaseConnection = DatabaseConnection.getInstance("jdbc:sqlite:wallet.db");
-        createTableIfNotExists();
+        this(DatabaseConfig.getDefaultConnection());
     }
 
-    private void createTableIfNotExists() {
-        try (var connection = databaseConnection.getConnection();
-             var stmt = connection.createStatement()) {
-            var sql = "CREATE TABLE IF NOT EXISTS " + tableName + " (id TEXT PRIMARY KEY, username TEXT, password TEXT)";
-            stmt.executeUpdate(sql);
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error creating table: {0}", e.getMessage());
-        }
+    public UserStorage(DatabaseConnection databaseConnection) {
+        this.tableName = "users";
+        this.databaseConnection = databaseConnection;
     }
 
     @Override
     public void save(User user) {
-        var sql = "INSERT INTO " + tableName + " (id, username, password) VALUES (?, ?, ?)";
-        try (var connection = databaseConnection.getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, user.id().toString());
-            pstmt.setString(2, user.username());
-            pstmt.setString(3, user.password());
-            pstmt.executeUpdate();
+        trySave(user);
+    }
+
+    public boolean trySave(User user) {
+        try (var connection = databaseConnection.getConnection()) {
+            save(connection, user);
+            return true;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error saving user: {0}", e.getMessage());
+            return false;
         }
     }
 
+    public void save(PooledConnection connection, User user) throws SQLException {
+        var sql = "INSERT INTO " + tableName + " (id, username, password) VALUES (?, ?, ?)";
+        var pstmt = connection.prepareStatement(sql);
+        pstmt.setBytes(1, UuidCodec.toBytes(user.id()));
+        pstmt.setString(2, user.username());
+        pstmt.setString(3, user.password());
+        pstmt.executeUpdate();
+    }
+
     @Override
     public User load(UUID id) {
-        return loadUser("SELECT id, username, password FROM " + tableName + " WHERE id = ?", id.toString());
+        return loadUser("SELECT id, username, password FROM " + tableName + " WHERE id = ?", UuidCodec.toBytes(id));
     }
 
     public User loadByUsername(String username) {
         return loadUser("SELECT id, username, password FROM " + tableName + " WHERE username = ?", username);
     }
 
-    private User loadUser(String sql, String parameter) {
-        try (var connection = databaseConnection.getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, parameter);
+    private User loadUser(String sql, Object parameter) {
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setObject(1, parameter);
             try (var rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    var userId = UUID.fromString(rs.getString("id"));
+                    var userId = UuidCodec.fromBytes(rs.getBytes("id"));
                     var username = rs.getString("username");
                     var password = rs.getString("password");
                     return new User(userId, username, password);
@@ -80,7 +86,7 @@ public class UserStorage implements StorageInterface<User> {
              var stmt = connection.createStatement();
              var rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                var id = UUID.fromString(rs.getString("id"));
+                var id = UuidCodec.fromBytes(rs.getBytes("id"));
                 var username = rs.getString("username");
                 var password = rs.getString("password");
                 users.add(new User(id, username, password));
@@ -94,10 +100,10 @@ public class UserStorage implements StorageInterface<User> {
     @Override
     public void update(User user) {
         var sql = "UPDATE " + tableName + " SET password = ? WHERE id = ?";
-        try (var connection = databaseConnection.getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
             pstmt.setString(1, user.password());
-            pstmt.setString(2, user.id().toString());
+            pstmt.setBytes(2, UuidCodec.toBytes(user.id()));
             pstmt.executeUpdate();
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating user: {0}", e.getMessage());
@@ -107,12 +113,16 @@ public class UserStorage implements StorageInterface<User> {
     @Override
     public void delete(UUID id) {
         var sql = "DELETE FROM " + tableName + " WHERE id = ?";
-        try (var connection = databaseConnection.getConnection();
-             var pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, id.toString());
+        try (var connection = databaseConnection.getConnection()) {
+            var pstmt = connection.prepareStatement(sql);
+            pstmt.setBytes(1, UuidCodec.toBytes(id));
             pstmt.executeUpdate();
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error deleting user: {0}", e.getMessage());
         }
     }
+
+    public DatabaseConnection getDatabaseConnection() {
+        return databaseConnection;
+    }
 }
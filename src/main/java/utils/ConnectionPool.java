@@ -0,0 +1,101 @@
+package utils;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ConnectionPool {
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+    private final String url;
+    private final long borrowTimeoutMillis;
+    private final StorageProfile profile;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledConnection> idle;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int maxSize, long borrowTimeoutMillis) {
+        this(url, maxSize, borrowTimeoutMillis, StorageProfile.DURABILITY);
+    }
+
+    public ConnectionPool(String url, int maxSize, long borrowTimeoutMillis, StorageProfile profile) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.url = url;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.profile = profile;
+        this.permits = new Semaphore(maxSize, true);
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    public PooledConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        acquirePermit();
+        try {
+            var pooled = idle.poll();
+            while (pooled != null && !pooled.isUsable()) {
+                pooled.closeQuietly();
+                pooled = idle.poll();
+            }
+            if (pooled == null) {
+                pooled = open();
+            }
+            pooled.markBorrowed();
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    void release(PooledConnection pooled) {
+        try {
+            pooled.reset();
+            if (closed || !idle.offer(pooled)) {
+                pooled.closeQuietly();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Discarding broken connection", e);
+            pooled.closeQuietly();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void close() {
+        closed = true;
+        PooledConnection pooled;
+        while ((pooled = idle.poll()) != null) {
+            pooled.closeQuietly();
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        var connection = DriverManager.getConnection(url);
+        try {
+            profile.apply(connection);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return new PooledConnection(this, connection);
+    }
+
+    private void acquirePermit() throws SQLException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+}
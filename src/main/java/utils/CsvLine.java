@@ -0,0 +1,80 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CsvLine {
+    private CsvLine() {
+    }
+
+    public static String readRecord(BufferedReader reader) throws IOException {
+        var line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        var record = new StringBuilder(line);
+        var quotes = countQuotes(line);
+        while (quotes % 2 != 0) {
+            var continuation = reader.readLine();
+            if (continuation == null) {
+                break;
+            }
+            record.append('\n').append(continuation);
+            quotes += countQuotes(continuation);
+        }
+        return record.toString();
+    }
+
+    public static List<String> split(String line) {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+        for (var i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static int countQuotes(String line) {
+        var quotes = 0;
+        for (var i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+}
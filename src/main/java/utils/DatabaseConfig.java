@@ -0,0 +1,35 @@
+package utils;
+
+public final class DatabaseConfig {
+    private static final String PATH_PROPERTY = "wallet.db.path";
+    private static final String PATH_ENVIRONMENT = "WALLET_DB_PATH";
+    private static final String SHARDS_PROPERTY = "wallet.db.shards";
+    private static final String DEFAULT_PATH = "wallet.db";
+    private static final String URL_PREFIX = "jdbc:sqlite:";
+
+    private DatabaseConfig() {
+    }
+
+    public static String getDatabasePath() {
+        var environmentPath = System.getenv(PATH_ENVIRONMENT);
+        return System.getProperty(PATH_PROPERTY, environmentPath != null ? environmentPath : DEFAULT_PATH);
+    }
+
+    public static String getDatabaseUrl() {
+        return URL_PREFIX + getDatabasePath();
+    }
+
+    public static DatabaseConnection getDefaultConnection() {
+        return DatabaseConnection.getInstance(getDatabaseUrl());
+    }
+
+    public static int getShardCount() {
+        return Math.max(0, Integer.getInteger(SHARDS_PROPERTY, 0));
+    }
+
+    public static String getShardUrl(int shard) {
+        var path = getDatabasePath();
+        var basePath = path.endsWith(".db") ? path.substring(0, path.length() - 3) : path;
+        return URL_PREFIX + basePath + "-shard-" + shard + ".db";
+    }
+}
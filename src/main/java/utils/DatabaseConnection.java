@@ -1,29 +1,60 @@
 package utils;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DatabaseConnection {
-    private static DatabaseConnection instance;
+    private static final Map<String, DatabaseConnection> instances = new ConcurrentHashMap<>();
+    private static final int POOL_SIZE = 4;
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000;
+    private static final int SQLITE_BUSY = 5;
     private final String url;
-    private Connection connection;
+    private final ConnectionPool pool;
+    private final StorageProfile profile;
 
     private DatabaseConnection(String url) {
         this.url = url;
+        this.profile = StorageProfile.fromSystemProperty();
+        this.pool = new ConnectionPool(url, POOL_SIZE, BORROW_TIMEOUT_MILLIS, profile);
     }
 
-    public static synchronized DatabaseConnection getInstance(String url) {
-        if (instance == null) {
-            instance = new DatabaseConnection(url);
-        }
-        return instance;
+    public static DatabaseConnection getInstance(String url) {
+        return instances.computeIfAbsent(url, DatabaseConnection::new);
+    }
+
+    public PooledConnection getConnection() throws SQLException {
+        return pool.borrow();
     }
 
-    public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(url);
+    public <T> T inTransaction(SqlFunction<T> work) throws SQLException {
+        try (var connection = getConnection()) {
+            connection.begin();
+            try {
+                var result = work.apply(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackFailure) {
+                    e.addSuppressed(rollbackFailure);
+                }
+                throw e;
+            }
         }
-        return connection;
+    }
+
+    public static boolean isBusy(SQLException e) {
+        return (e.getErrorCode() & 0xFF) == SQLITE_BUSY;
+    }
+
+    public StorageProfile getProfile() {
+        return profile;
+    }
+
+    public void close() {
+        instances.remove(url, this);
+        pool.close();
     }
 }
@@ -0,0 +1,21 @@
+package utils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+public final class DateFormatter {
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private DateFormatter() {
+    }
+
+    public static String format(Instant instant) {
+        return FORMAT.format(LocalDateTime.ofInstant(instant, ZoneId.systemDefault()));
+    }
+
+    public static Instant parse(String input) {
+        return LocalDateTime.parse(input.trim(), FORMAT).atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
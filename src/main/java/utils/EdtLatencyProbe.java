@@ -0,0 +1,70 @@
+package utils;
+
+import javax.swing.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class EdtLatencyProbe {
+    private static final Logger logger = Logger.getLogger(EdtLatencyProbe.class.getName());
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("edt-latency-probe").daemon().factory());
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final long blockedThresholdNanos;
+
+    public EdtLatencyProbe(long blockedThresholdMillis) {
+        this.blockedThresholdNanos = TimeUnit.MILLISECONDS.toNanos(blockedThresholdMillis);
+    }
+
+    public void start(long probeIntervalMillis, long reportIntervalMillis) {
+        scheduler.scheduleAtFixedRate(this::probe, probeIntervalMillis, probeIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::report, reportIntervalMillis, reportIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public long getSampleCount() {
+        return samples.sum();
+    }
+
+    public double getAverageLatencyMillis() {
+        var count = samples.sum();
+        return count == 0 ? 0 : totalLatencyNanos.sum() / (count * 1_000_000.0);
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    public double getBlockedMillis() {
+        return blockedNanos.sum() / 1_000_000.0;
+    }
+
+    private void probe() {
+        var postedAt = System.nanoTime();
+        SwingUtilities.invokeLater(() -> record(System.nanoTime() - postedAt));
+    }
+
+    private void record(long latencyNanos) {
+        samples.increment();
+        totalLatencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+        if (latencyNanos > blockedThresholdNanos) {
+            blockedNanos.add(latencyNanos);
+        }
+    }
+
+    private void report() {
+        logger.log(Level.INFO, "EDT latency: samples={0}, avg={1} ms, max={2} ms, blocked={3} ms",
+                new Object[]{getSampleCount(), getAverageLatencyMillis(), getMaxLatencyMillis(), getBlockedMillis()});
+    }
+}
@@ -0,0 +1,48 @@
+package utils;
+
+import model.ChangeEvent;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+public class EventBus {
+    private static final EventBus instance = new EventBus();
+    private final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+
+    public static EventBus getInstance() {
+        return instance;
+    }
+
+    public <E extends ChangeEvent> Runnable subscribe(Class<E> type, Consumer<? super E> handler) {
+        var subscriber = new Subscriber<>(type, handler);
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    public void publish(ChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (SwingUtilities.isEventDispatchThread()) {
+            dispatch(event);
+        } else {
+            SwingUtilities.invokeLater(() -> dispatch(event));
+        }
+    }
+
+    private void dispatch(ChangeEvent event) {
+        for (var subscriber : subscribers) {
+            subscriber.deliver(event);
+        }
+    }
+
+    private record Subscriber<E extends ChangeEvent>(Class<E> type, Consumer<? super E> handler) {
+        void deliver(ChangeEvent event) {
+            if (type.isInstance(event)) {
+                handler.accept(type.cast(event));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public final class JsonArrayReader {
+    private final Reader reader;
+    private boolean started;
+    private boolean finished;
+
+    public JsonArrayReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public String next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            if (readNonWhitespace() != '[') {
+                throw new IOException("Expected a JSON array");
+            }
+            started = true;
+        }
+        var element = new StringBuilder();
+        var depth = 0;
+        var inString = false;
+        var escaped = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            var ch = (char) c;
+            if (inString) {
+                element.append(ch);
+                if (escaped) {
+                    escaped = false;
+                } else if (ch == '\\') {
+                    escaped = true;
+                } else if (ch == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            if (depth == 0 && (ch == ',' || ch == ']')) {
+                finished = ch == ']';
+                if (finished && element.toString().isBlank()) {
+                    return null;
+                }
+                return element.toString();
+            }
+            switch (ch) {
+                case '"' -> inString = true;
+                case '{', '[' -> depth++;
+                case '}', ']' -> depth--;
+                default -> {
+                }
+            }
+            element.append(ch);
+        }
+        throw new IOException("Unterminated JSON array");
+    }
+
+    private int readNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        return c;
+    }
+}
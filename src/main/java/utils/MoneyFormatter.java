@@ -0,0 +1,28 @@
+package utils;
+
+import java.math.BigDecimal;
+
+public final class MoneyFormatter {
+    private static final int MINOR_UNITS_SCALE = 2;
+    private static final long MINOR_UNITS_PER_UNIT = 100;
+
+    private MoneyFormatter() {
+    }
+
+    public static String format(long minorUnits) {
+        var sign = minorUnits < 0 ? "-" : "";
+        var absolute = Math.abs(minorUnits);
+        var fraction = absolute % MINOR_UNITS_PER_UNIT;
+        return sign + absolute / MINOR_UNITS_PER_UNIT + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    public static long parse(String input) {
+        try {
+            return new BigDecimal(input.trim().replace(',', '.'))
+                    .movePointRight(MINOR_UNITS_SCALE)
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Некорректная сумма: " + input);
+        }
+    }
+}
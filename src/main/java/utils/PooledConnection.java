@@ -0,0 +1,135 @@
+package utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class PooledConnection implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(PooledConnection.class.getName());
+    private static final int STATEMENT_CACHE_SIZE = 64;
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+    private final List<Runnable> commitCallbacks = new ArrayList<>();
+    private boolean borrowed;
+    private boolean inTransaction;
+
+    PooledConnection(ConnectionPool pool, Connection connection) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > STATEMENT_CACHE_SIZE) {
+                    closeStatement(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        var statement = statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        } else {
+            statement.clearParameters();
+        }
+        return statement;
+    }
+
+    public Statement createStatement() throws SQLException {
+        return connection.createStatement();
+    }
+
+    public void afterCommit(Runnable callback) {
+        if (inTransaction) {
+            commitCallbacks.add(callback);
+        } else {
+            callback.run();
+        }
+    }
+
+    void begin() throws SQLException {
+        execute("BEGIN IMMEDIATE");
+        inTransaction = true;
+    }
+
+    void commit() throws SQLException {
+        execute("COMMIT");
+        inTransaction = false;
+        var callbacks = List.copyOf(commitCallbacks);
+        commitCallbacks.clear();
+        callbacks.forEach(Runnable::run);
+    }
+
+    void rollback() throws SQLException {
+        inTransaction = false;
+        commitCallbacks.clear();
+        execute("ROLLBACK");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    public Connection getRawConnection() {
+        return connection;
+    }
+
+    @Override
+    public void close() {
+        if (borrowed) {
+            borrowed = false;
+            pool.release(this);
+        }
+    }
+
+    void markBorrowed() {
+        borrowed = true;
+    }
+
+    boolean isUsable() {
+        try {
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void reset() throws SQLException {
+        if (!connection.getAutoCommit()) {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    void closeQuietly() {
+        statements.values().forEach(this::closeStatement);
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error closing connection", e);
+        }
+    }
+
+    private void closeStatement(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error closing statement", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package utils;
+
+import javax.swing.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class RefreshScheduler {
+    public static final int FRAME_MILLIS = 16;
+    private static final Logger logger = Logger.getLogger(RefreshScheduler.class.getName());
+    private final String name;
+    private final Runnable refresh;
+    private final Timer timer;
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder executed = new LongAdder();
+
+    public RefreshScheduler(String name, Runnable refresh) {
+        this(name, refresh, FRAME_MILLIS);
+    }
+
+    public RefreshScheduler(String name, Runnable refresh, int debounceMillis) {
+        this.name = name;
+        this.refresh = refresh;
+        this.timer = new Timer(debounceMillis, e -> run());
+        this.timer.setRepeats(false);
+        this.timer.setCoalesce(true);
+    }
+
+    public void requestRefresh() {
+        requested.increment();
+        if (SwingUtilities.isEventDispatchThread()) {
+            timer.restart();
+        } else {
+            SwingUtilities.invokeLater(timer::restart);
+        }
+    }
+
+    public void cancel() {
+        timer.stop();
+    }
+
+    public long getRequestedCount() {
+        return requested.sum();
+    }
+
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    private void run() {
+        executed.increment();
+        logger.log(Level.FINE, "{0} refresh: requested={1}, executed={2}",
+                new Object[]{name, getRequestedCount(), getExecutedCount()});
+        refresh.run();
+    }
+}
@@ -0,0 +1,48 @@
+package utils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class RetryPolicy {
+    private static final Logger logger = Logger.getLogger(RetryPolicy.class.getName());
+    private static final RetryPolicy DEFAULT = new RetryPolicy(5, Duration.ofMillis(10), Duration.ofMillis(500));
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public static RetryPolicy defaultPolicy() {
+        return DEFAULT;
+    }
+
+    public <T> T execute(Supplier<T> attempt, Predicate<T> shouldRetry) {
+        var backoff = initialBackoff.toMillis();
+        for (var attemptNumber = 1; ; attemptNumber++) {
+            var result = attempt.get();
+            if (!shouldRetry.test(result) || attemptNumber >= maxAttempts) {
+                return result;
+            }
+            var delay = ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+            logger.log(Level.FINE, "Retrying after conflict, attempt " + attemptNumber + ", waiting " + delay + " ms");
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return result;
+            }
+            backoff = Math.min(backoff * 2, maxBackoff.toMillis());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package utils;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SqlFunction<T> {
+    T apply(PooledConnection connection) throws SQLException;
+}
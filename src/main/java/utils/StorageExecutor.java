@@ -0,0 +1,46 @@
+package utils;
+
+import javax.swing.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class StorageExecutor {
+    private static final Logger logger = Logger.getLogger(StorageExecutor.class.getName());
+    private static final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("storage-", 0).factory());
+
+    private StorageExecutor() {
+    }
+
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, executor);
+    }
+
+    public static <T> void submit(Supplier<T> work, Consumer<T> onResult) {
+        submit(work, onResult, error -> {
+        });
+    }
+
+    public static <T> void submit(Supplier<T> work, Consumer<T> onResult, Consumer<Throwable> onError) {
+        supplyAsync(work).whenComplete((result, error) -> {
+            if (error != null) {
+                logger.log(Level.SEVERE, "Error running storage task", error);
+                SwingUtilities.invokeLater(() -> onError.accept(error));
+                return;
+            }
+            SwingUtilities.invokeLater(() -> onResult.accept(result));
+        });
+    }
+
+    public static void submit(Runnable work, Runnable onComplete) {
+        submit(() -> {
+            work.run();
+            return null;
+        }, ignored -> onComplete.run());
+    }
+}
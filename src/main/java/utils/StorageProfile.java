@@ -0,0 +1,56 @@
+package utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public enum StorageProfile {
+    THROUGHPUT("WAL", "NORMAL", -65_536, 268_435_456L, "MEMORY", 5_000),
+    DURABILITY("WAL", "FULL", -16_384, 0, "DEFAULT", 10_000);
+
+    private static final Logger logger = Logger.getLogger(StorageProfile.class.getName());
+    private static final String PROPERTY = "wallet.storageProfile";
+
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSize;
+    private final long mmapSize;
+    private final String tempStore;
+    private final int busyTimeoutMillis;
+
+    StorageProfile(String journalMode, String synchronous, int cacheSize, long mmapSize, String tempStore,
+                   int busyTimeoutMillis) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+    }
+
+    public void apply(Connection connection) throws SQLException {
+        try (var stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            stmt.execute("PRAGMA journal_mode = " + journalMode);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    public static StorageProfile fromSystemProperty() {
+        var name = System.getProperty(PROPERTY);
+        if (name == null || name.isBlank()) {
+            return DURABILITY;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.WARNING, "Unknown storage profile '" + name + "', using " + DURABILITY);
+            return DURABILITY;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package utils;
+
+import java.util.UUID;
+
+public final class UuidCodec {
+    private static final int UUID_BYTES = 16;
+
+    private UuidCodec() {
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        if (uuid == null) {
+            return null;
+        }
+        var bytes = new byte[UUID_BYTES];
+        writeLong(bytes, 0, uuid.getMostSignificantBits());
+        writeLong(bytes, 8, uuid.getLeastSignificantBits());
+        return bytes;
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length != UUID_BYTES) {
+            throw new IllegalArgumentException("Expected 16 bytes for UUID, got " + bytes.length);
+        }
+        return new UUID(readLong(bytes, 0), readLong(bytes, 8));
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (var i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        var value = 0L;
+        for (var i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
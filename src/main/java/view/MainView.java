@@ -4,14 +4,13 @@ import controller.CategoryController;
 import controller.InfoController;
 import controller.MainController;
 import controller.OperationController;
+import controller.ReportController;
 import model.User;
-import storage.AccountStorage;
-import storage.CategoryStorage;
-import storage.OperationStorage;
-import storage.UserStorage;
+import service.WalletService;
 import view.components.CategoryPanel;
 import view.components.InfoPanel;
 import view.components.OperationPanel;
+import view.components.ReportPanel;
 
 import javax.swing.*;
 import java.awt.*;
@@ -21,31 +20,30 @@ public class MainView extends JFrame {
     private final InfoController infoController;
     private final OperationController operationController;
     private final CategoryController categoryController;
+    private final ReportController reportController;
 
     private final User user;
 
     private InfoPanel infoPanel;
     private OperationPanel operationPanel;
     private CategoryPanel categoryPanel;
+    private ReportPanel reportPanel;
 
     private JButton changeUserButton;
     private JButton exitButton;
 
-    public MainView(User user) {
-        this(user, new UserStorage(), new AccountStorage(), new OperationStorage(), new CategoryStorage());
-    }
-
-    public MainView(User user, UserStorage userStorage, AccountStorage accountStorage,
-                    OperationStorage operationStorage, CategoryStorage categoryStorage) {
+    public MainView(User user, WalletService walletService) {
         this.user = user;
 
-        this.mainController = new MainController(userStorage, this);
+        this.mainController = new MainController(walletService, this);
         this.infoPanel = new InfoPanel(user.id());
-        this.infoController = new InfoController(userStorage, accountStorage, infoPanel);
-        this.operationPanel = new OperationPanel(user.id());
-        this.operationController = new OperationController(operationPanel, accountStorage, operationStorage, categoryStorage);
-        this.categoryPanel = new CategoryPanel(user.id());
-        this.categoryController = new CategoryController(accountStorage, operationStorage, categoryStorage, categoryPanel);
+        this.infoController = new InfoController(walletService, infoPanel);
+        this.operationPanel = new OperationPanel(user.id(), walletService);
+        this.operationController = operationPanel.getController();
+        this.categoryPanel = new CategoryPanel(user.id(), walletService);
+        this.categoryController = categoryPanel.getController();
+        this.reportPanel = new ReportPanel(user.id());
+        this.reportController = new ReportController(walletService, reportPanel);
 
         createMainScreen();
         bindEvents();
@@ -77,6 +75,7 @@ public class MainView extends JFrame {
         tabbedPane.addTab("Инфо", infoPanel);
         tabbedPane.addTab("Операции", operationPanel);
         tabbedPane.addTab("Категории", categoryPanel);
+        tabbedPane.addTab("Отчёты", reportPanel);
 
         tabbedPane.addChangeListener(e -> {
             int selectedIndex = tabbedPane.getSelectedIndex();
@@ -90,6 +89,10 @@ public class MainView extends JFrame {
             if (selectedIndex == 2) {
                 categoryController.updateCategories();
             }
+
+            if (selectedIndex == 3) {
+                reportController.updateReport();
+            }
         });
     }
 
@@ -109,6 +112,9 @@ public class MainView extends JFrame {
     }
 
     public void close() {
+        infoController.close();
+        operationController.close();
+        categoryController.close();
         dispose();
     }
 }
\ No newline at end of file
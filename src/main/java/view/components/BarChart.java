@@ -0,0 +1,79 @@
+package view.components;
+
+import model.PeriodTotal;
+import utils.MoneyFormatter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+public class BarChart extends JComponent {
+    private static final Color INCOME_COLOR = new Color(76, 153, 0);
+    private static final Color EXPENSE_COLOR = new Color(204, 51, 51);
+    private static final int PADDING = 40;
+    private List<PeriodTotal> totals = List.of();
+
+    public BarChart() {
+        setPreferredSize(new Dimension(700, 400));
+    }
+
+    public void setTotals(List<PeriodTotal> totals) {
+        this.totals = List.copyOf(totals);
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        var g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        var width = getWidth() - 2 * PADDING;
+        var height = getHeight() - 2 * PADDING;
+        g2.setColor(getBackground());
+        g2.fillRect(0, 0, getWidth(), getHeight());
+        g2.setColor(Color.GRAY);
+        g2.drawLine(PADDING, PADDING + height, PADDING + width, PADDING + height);
+
+        if (totals.isEmpty() || width <= 0 || height <= 0) {
+            g2.drawString("Нет данных", PADDING, PADDING + height / 2);
+            g2.dispose();
+            return;
+        }
+
+        var max = 1L;
+        for (var total : totals) {
+            max = Math.max(max, Math.max(total.income(), total.expense()));
+        }
+
+        var slot = (double) width / totals.size();
+        var barWidth = Math.max(1, (int) (slot / 2) - 1);
+        var labelStep = Math.max(1, (int) Math.ceil(totals.size() / (width / 60.0)));
+        var metrics = g2.getFontMetrics();
+
+        for (var i = 0; i < totals.size(); i++) {
+            var total = totals.get(i);
+            var x = PADDING + (int) (i * slot);
+            var incomeHeight = (int) (height * (double) total.income() / max);
+            var expenseHeight = (int) (height * (double) total.expense() / max);
+
+            g2.setColor(INCOME_COLOR);
+            g2.fillRect(x, PADDING + height - incomeHeight, barWidth, incomeHeight);
+            g2.setColor(EXPENSE_COLOR);
+            g2.fillRect(x + barWidth, PADDING + height - expenseHeight, barWidth, expenseHeight);
+
+            if (i % labelStep == 0) {
+                g2.setColor(Color.DARK_GRAY);
+                g2.drawString(total.period(), x, PADDING + height + metrics.getHeight());
+            }
+        }
+
+        g2.setColor(Color.DARK_GRAY);
+        g2.drawString(MoneyFormatter.format(max), 2, PADDING - metrics.getDescent());
+        g2.setColor(INCOME_COLOR);
+        g2.drawString("Доход", PADDING + width - 120, metrics.getHeight());
+        g2.setColor(EXPENSE_COLOR);
+        g2.drawString("Расход", PADDING + width - 60, metrics.getHeight());
+        g2.dispose();
+    }
+}
@@ -2,14 +2,16 @@ package view.components;
 
 import controller.CategoryController;
 import model.Category;
-import storage.AccountStorage;
-import storage.CategoryStorage;
-import storage.OperationStorage;
+import service.WalletService;
+import utils.MoneyFormatter;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class CategoryPanel extends JPanel {
@@ -20,10 +22,13 @@ public class CategoryPanel extends JPanel {
     private final JButton addButton;
     private final JButton deleteButton;
     private final JButton updateButton;
+    private final List<UUID> rowIds = new ArrayList<>();
+    private final Map<UUID, Long> limits = new HashMap<>();
+    private final Map<UUID, Long> spentByCategory = new HashMap<>();
 
-    public CategoryPanel(UUID userID) {
-        categoryController = new CategoryController(new AccountStorage(), new OperationStorage(), new CategoryStorage(), this);
+    public CategoryPanel(UUID userID, WalletService walletService) {
         this.userID = userID;
+        this.categoryController = new CategoryController(walletService, this);
 
         setLayout(new BorderLayout());
 
@@ -44,7 +49,7 @@ public class CategoryPanel extends JPanel {
         add(buttonPanel, BorderLayout.SOUTH);
 
         bindEvents();
-        loadCategoriesForUser();
+        categoryController.updateCategories();
     }
 
     private void bindEvents() {
@@ -53,11 +58,6 @@ public class CategoryPanel extends JPanel {
         updateButton.addActionListener(e -> updateLimit());
     }
 
-    private void loadCategoriesForUser() {
-        var categories = categoryController.getCategoriesForUser(userID);
-        loadCategories(categories);
-    }
-
     private void addCategory() {
         var name = JOptionPane.showInputDialog("Введите имя категории:");
         if (isInvalidInput(name)) return;
@@ -66,13 +66,9 @@ public class CategoryPanel extends JPanel {
         if (limitStr == null) return;
 
         try {
-            var limit = Double.parseDouble(limitStr);
+            var limit = MoneyFormatter.parse(limitStr);
             if (limit >= 0) {
-                if (categoryController.categoryExists(name, userID)) {
-                    showError("Категория с таким именем уже существует.");
-                } else {
-                    categoryController.addCategory(name, limit, userID);
-                }
+                categoryController.addCategory(name, limit, userID);
             } else {
                 showError("Введите корректное неотрицательное число для лимита.");
             }
@@ -88,7 +84,7 @@ public class CategoryPanel extends JPanel {
             if (newLimitStr == null) return;
 
             try {
-                var newLimit = Double.parseDouble(newLimitStr);
+                var newLimit = MoneyFormatter.parse(newLimitStr);
                 if (newLimit >= 0) {
                     var name = getCategoryNameFromRow(selectedRow);
                     categoryController.updateCategoryLimit(name, newLimit, userID);
@@ -121,22 +117,75 @@ public class CategoryPanel extends JPanel {
         return input == null || input.trim().isEmpty();
     }
 
-    public void loadCategories(List<Category> categories) {
+    public void loadCategories(List<Category> categories, Map<UUID, Long> spentByCategory) {
         tableModel.setRowCount(0);
+        rowIds.clear();
+        limits.clear();
+        this.spentByCategory.clear();
+        this.spentByCategory.putAll(spentByCategory);
         for (var category : categories) {
             if (category.getName().equals("Перевод")) {
                 continue;
             }
-            var spentInCategory = categoryController.getSpentInCategory(userID, category.getId());
-            var remainingLimit = category.getRemaining(spentInCategory);
-            tableModel.addRow(new Object[]{category.getName(), category.getLimit(), remainingLimit});
+            rowIds.add(category.getId());
+            tableModel.addRow(toRow(category));
+        }
+    }
+
+    public void putCategory(Category category) {
+        if (category.getName().equals("Перевод")) {
+            return;
+        }
+        var row = rowIds.indexOf(category.getId());
+        if (row < 0) {
+            rowIds.add(category.getId());
+            tableModel.addRow(toRow(category));
+            return;
+        }
+        var values = toRow(category);
+        for (var column = 0; column < values.length; column++) {
+            tableModel.setValueAt(values[column], row, column);
         }
     }
 
+    public void removeCategory(UUID categoryId) {
+        var row = rowIds.indexOf(categoryId);
+        if (row >= 0) {
+            rowIds.remove(row);
+            tableModel.removeRow(row);
+        }
+        limits.remove(categoryId);
+        spentByCategory.remove(categoryId);
+    }
+
+    public void addSpent(UUID categoryId, long amount) {
+        var spent = spentByCategory.merge(categoryId, amount, Long::sum);
+        var row = rowIds.indexOf(categoryId);
+        var limit = limits.get(categoryId);
+        if (row >= 0 && limit != null) {
+            tableModel.setValueAt(MoneyFormatter.format(limit - spent), row, 2);
+        }
+    }
+
+    private Object[] toRow(Category category) {
+        limits.put(category.getId(), category.getLimit());
+        var spentInCategory = spentByCategory.getOrDefault(category.getId(), 0L);
+        var remainingLimit = category.getRemaining(spentInCategory);
+        return new Object[]{
+                category.getName(),
+                MoneyFormatter.format(category.getLimit()),
+                MoneyFormatter.format(remainingLimit)
+        };
+    }
+
     public UUID getUserId() {
         return userID;
     }
 
+    public CategoryController getController() {
+        return categoryController;
+    }
+
     public void showError(String message) {
         JOptionPane.showMessageDialog(this, message, "Ошибка", JOptionPane.ERROR_MESSAGE);
     }
@@ -1,5 +1,7 @@
 package view.components;
 
+import utils.MoneyFormatter;
+
 import javax.swing.*;
 import java.awt.*;
 import java.util.UUID;
@@ -31,8 +33,8 @@ public class InfoPanel extends JPanel {
         numberAccountLabel.setText("Номер счета: " + number);
     }
 
-    public void setBalance(Double balance) {
-        balanceLabel.setText("Баланс: " + balance);
+    public void setBalance(long balance) {
+        balanceLabel.setText("Баланс: " + MoneyFormatter.format(balance));
     }
 
     public UUID getUserId() {
@@ -2,60 +2,94 @@ package view.components;
 
 import controller.OperationController;
 import model.Category;
-import storage.AccountStorage;
-import storage.CategoryStorage;
-import storage.OperationStorage;
+import model.DatePeriod;
+import model.OperationEntry;
+import model.OperationType;
+import service.WalletService;
+import utils.MoneyFormatter;
+import utils.RefreshScheduler;
+import utils.StorageExecutor;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.io.File;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 public class OperationPanel extends JPanel {
-    private DefaultTableModel tableModel;
+    private static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_ROWS = 20;
+    private OperationTableModel tableModel;
     private final UUID userId;
     private final OperationController operationController;
     private JLabel totalIncomeLabel;
     private JLabel totalExpenseLabel;
     private JComboBox<String> categoryFilterComboBox;
     private JComboBox<String> typeFilterComboBox;
-
-    public OperationPanel(UUID userId) {
+    private JComboBox<String> periodFilterComboBox;
+    private JTextField searchField;
+    private final RefreshScheduler refreshScheduler = new RefreshScheduler("operations", this::loadOperations);
+    private boolean updatingCategoryFilter;
+    private int snapshotVersion;
+    private int summaryRequest;
+
+    public OperationPanel(UUID userId, WalletService walletService) {
         this.userId = userId;
-        this.operationController = new OperationController(this, new AccountStorage(), new OperationStorage(), new CategoryStorage());
+        this.operationController = new OperationController(this, walletService);
         setLayout(new BorderLayout());
 
         initializeTable();
         initializeButtons();
         initializeFilterAndSummaryComponents();
-        loadOperations();
+        requestRefresh();
     }
 
 
     private void initializeFilterAndSummaryComponents() {
         var filterAndSummaryPanel = new JPanel();
-        filterAndSummaryPanel.setLayout(new GridLayout(2, 1));
+        filterAndSummaryPanel.setLayout(new GridLayout(3, 1));
 
         categoryFilterComboBox = new JComboBox<>();
         categoryFilterComboBox.addItem("Все категории");
         operationController.loadCategories();
 
         categoryFilterComboBox.addActionListener(e -> {
-            loadOperations();
+            if (!updatingCategoryFilter) {
+                requestRefresh();
+            }
         });
 
-        typeFilterComboBox = new JComboBox<>(new String[]{"Все типы", "Доход", "Расход"});
-        typeFilterComboBox.addActionListener(e -> loadOperations());
+        typeFilterComboBox = new JComboBox<>(new String[]{"Все типы", OperationType.INCOME.getLabel(), OperationType.EXPENSE.getLabel()});
+        typeFilterComboBox.addActionListener(e -> requestRefresh());
+
+        periodFilterComboBox = new JComboBox<>(Arrays.stream(DatePeriod.values()).map(DatePeriod::getLabel).toArray(String[]::new));
+        periodFilterComboBox.addActionListener(e -> requestRefresh());
 
         var filterPanel = new JPanel();
         filterPanel.add(new JLabel("Категория:"));
         filterPanel.add(categoryFilterComboBox);
         filterPanel.add(new JLabel("Тип:"));
         filterPanel.add(typeFilterComboBox);
+        filterPanel.add(new JLabel("Период:"));
+        filterPanel.add(periodFilterComboBox);
 
         filterAndSummaryPanel.add(filterPanel);
 
+        searchField = new JTextField(25);
+        searchField.addActionListener(e -> requestRefresh());
+        var searchButton = new JButton("Найти");
+        searchButton.addActionListener(e -> requestRefresh());
+
+        var searchPanel = new JPanel();
+        searchPanel.add(new JLabel("Поиск:"));
+        searchPanel.add(searchField);
+        searchPanel.add(searchButton);
+
+        filterAndSummaryPanel.add(searchPanel);
+
         var summaryPanel = new JPanel();
         totalIncomeLabel = new JLabel("Общий доход: 0");
         totalExpenseLabel = new JLabel("Общие расходы: 0");
@@ -69,27 +103,53 @@ public class OperationPanel extends JPanel {
 
 
     public void updateSummary() {
-        String selectedCategory = (String) categoryFilterComboBox.getSelectedItem();
-        String selectedType = (String) typeFilterComboBox.getSelectedItem();
+        var selectedCategory = (String) categoryFilterComboBox.getSelectedItem();
+        var selectedType = (String) typeFilterComboBox.getSelectedItem();
+        var selectedPeriod = (String) periodFilterComboBox.getSelectedItem();
+
+        var request = ++summaryRequest;
+        StorageExecutor.submit(() -> operationController.getTotalsByType(selectedCategory, selectedType, selectedPeriod), totals -> {
+            if (request == summaryRequest) {
+                totalIncomeLabel.setText("Общий доход: " + MoneyFormatter.format(totals.getOrDefault(OperationType.INCOME, 0L)));
+                totalExpenseLabel.setText("Общие расходы: " + MoneyFormatter.format(totals.getOrDefault(OperationType.EXPENSE, 0L)));
+            }
+        });
+    }
 
-        double totalIncome = operationController.getTotalIncome(selectedCategory, selectedType);
-        double totalExpense = operationController.getTotalExpense(selectedCategory, selectedType);
+    public int getSnapshotVersion() {
+        return snapshotVersion;
+    }
 
-        totalIncomeLabel.setText("Общий доход: " + totalIncome);
-        totalExpenseLabel.setText("Общие расходы: " + totalExpense);
+    public void insertOperation(OperationEntry entry, int version) {
+        if (version != snapshotVersion) {
+            return;
+        }
+        if (!searchField.getText().isBlank()) {
+            requestRefresh();
+            return;
+        }
+        var selectedCategory = (String) categoryFilterComboBox.getSelectedItem();
+        var selectedType = (String) typeFilterComboBox.getSelectedItem();
+        var selectedPeriod = (String) periodFilterComboBox.getSelectedItem();
+        if (!operationController.matchesFilter(entry, selectedCategory, selectedType, selectedPeriod)) {
+            return;
+        }
+        tableModel.insert(entry);
+        updateSummary();
     }
 
     private void initializeTable() {
-        String[] columnNames = {"Категория", "Тип", "Сумма", "Дата"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new OperationTableModel(PAGE_SIZE);
         var operationTable = new JTable(tableModel);
 
         var scrollPane = new JScrollPane(operationTable);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            var scrollBar = scrollPane.getVerticalScrollBar();
+            var prefetchHeight = PREFETCH_ROWS * operationTable.getRowHeight();
+            if (scrollBar.getValue() + scrollBar.getVisibleAmount() >= scrollBar.getMaximum() - prefetchHeight) {
+                tableModel.loadNextPage();
+            }
+        });
         add(scrollPane, BorderLayout.CENTER);
     }
 
@@ -104,37 +164,62 @@ public class OperationPanel extends JPanel {
         transferButton.addActionListener(e -> operationController.makeTransfer());
         buttonPanel.add(transferButton);
 
+        var importButton = new JButton("Импорт");
+        importButton.addActionListener(e -> chooseImportFile());
+        buttonPanel.add(importButton);
+
+        var exportButton = new JButton("Экспорт");
+        exportButton.addActionListener(e -> chooseExportFile());
+        buttonPanel.add(exportButton);
+
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
-    public void loadOperations() {
-        tableModel.setRowCount(0);
+    private void chooseImportFile() {
+        var fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV или JSON Lines", "csv", "jsonl", "json"));
+        if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            operationController.importOperations(fileChooser.getSelectedFile().toPath());
+        }
+    }
 
-        var selectedCategory = (String) categoryFilterComboBox.getSelectedItem();
-        var selectedType = (String) typeFilterComboBox.getSelectedItem();
+    private void chooseExportFile() {
+        var fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV, JSON или JSON Lines", "csv", "json", "jsonl"));
+        fileChooser.setSelectedFile(new File("operations.csv"));
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            operationController.exportOperations(fileChooser.getSelectedFile().toPath());
+        }
+    }
 
-        var operations = operationController.getFilteredOperationsByUserId(selectedCategory, selectedType);
+    public void requestRefresh() {
+        refreshScheduler.requestRefresh();
+    }
 
-        for (var operation : operations) {
-            String categoryName;
-            if (operation.categoryId() != null) {
-                var category = operationController.getCategoryById(operation.categoryId());
-                categoryName = (category != null) ? category.getName() : "Без категории";
-            } else {
-                categoryName = "Без категории";
-            }
-            tableModel.addRow(new Object[]{
-                    categoryName,
-                    operation.type(),
-                    operation.amount(),
-                    operation.date()
-            });
+    public RefreshScheduler getRefreshScheduler() {
+        return refreshScheduler;
+    }
+
+    public void loadOperations() {
+        var selectedCategory = (String) categoryFilterComboBox.getSelectedItem();
+        var selectedType = (String) typeFilterComboBox.getSelectedItem();
+        var selectedPeriod = (String) periodFilterComboBox.getSelectedItem();
+        var searchText = searchField.getText();
+
+        snapshotVersion++;
+        if (!searchText.isBlank()) {
+            tableModel.reload((after, offset, pageSize) ->
+                    operationController.searchOperations(searchText, offset, pageSize));
+        } else {
+            tableModel.reload((after, offset, pageSize) ->
+                    operationController.loadOperationPage(selectedCategory, selectedType, selectedPeriod, after, pageSize));
         }
         updateSummary();
     }
 
     public void updateCategoryFilter(List<Category> categories) {
-        categoryFilterComboBox.removeActionListener(e -> loadOperations());
+        var selectedCategory = categoryFilterComboBox.getSelectedItem();
+        updatingCategoryFilter = true;
 
         categoryFilterComboBox.removeAllItems();
         categoryFilterComboBox.addItem("Все категории");
@@ -148,14 +233,26 @@ public class OperationPanel extends JPanel {
             }
         }
 
-        categoryFilterComboBox.addActionListener(e -> loadOperations());
+        categoryFilterComboBox.setSelectedItem(selectedCategory);
+        updatingCategoryFilter = false;
+        if (!Objects.equals(selectedCategory, categoryFilterComboBox.getSelectedItem())) {
+            requestRefresh();
+        }
     }
 
     public void showError(String message) {
         JOptionPane.showMessageDialog(this, message, "Ошибка", JOptionPane.ERROR_MESSAGE);
     }
 
+    public void showMessage(String message) {
+        JOptionPane.showMessageDialog(this, message, "Информация", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     public UUID getUserID() {
         return userId;
     }
+
+    public OperationController getController() {
+        return operationController;
+    }
 }
@@ -0,0 +1,119 @@
+package view.components;
+
+import model.OperationEntry;
+import storage.OperationCursor;
+import utils.DateFormatter;
+import utils.MoneyFormatter;
+import utils.StorageExecutor;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OperationTableModel extends AbstractTableModel {
+    private static final String[] COLUMN_NAMES = {"Категория", "Тип", "Сумма", "Дата", "Примечание"};
+    private final int pageSize;
+    private final List<OperationEntry> rows = new ArrayList<>();
+    private PageLoader pageLoader;
+    private OperationCursor cursor;
+    private boolean hasMore;
+    private boolean loading;
+    private int generation;
+
+    @FunctionalInterface
+    public interface PageLoader {
+        List<OperationEntry> load(OperationCursor after, int offset, int pageSize);
+    }
+
+    public OperationTableModel(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public void reload(PageLoader pageLoader) {
+        this.pageLoader = pageLoader;
+        generation++;
+        rows.clear();
+        cursor = null;
+        hasMore = true;
+        loading = false;
+        fireTableDataChanged();
+        loadNextPage();
+    }
+
+    public void loadNextPage() {
+        if (!hasMore || loading || pageLoader == null) {
+            return;
+        }
+        loading = true;
+        var requestGeneration = generation;
+        var loader = pageLoader;
+        var after = cursor;
+        var offset = rows.size();
+        StorageExecutor.submit(() -> loader.load(after, offset, pageSize), page -> {
+            if (requestGeneration == generation) {
+                appendPage(page);
+            }
+        }, error -> {
+            if (requestGeneration == generation) {
+                loading = false;
+            }
+        });
+    }
+
+    public void insert(OperationEntry entry) {
+        var date = entry.operation().date().toEpochMilli();
+        var row = 0;
+        while (row < rows.size() && rows.get(row).operation().date().toEpochMilli() > date) {
+            row++;
+        }
+        if (row == rows.size() && hasMore) {
+            return;
+        }
+        if (row < rows.size() && rows.get(row).operation().id().equals(entry.operation().id())) {
+            return;
+        }
+        rows.add(row, entry);
+        fireTableRowsInserted(row, row);
+    }
+
+    private void appendPage(List<OperationEntry> page) {
+        loading = false;
+        hasMore = page.size() == pageSize;
+        if (page.isEmpty()) {
+            return;
+        }
+        var firstRow = rows.size();
+        rows.addAll(page);
+        cursor = OperationCursor.after(page.get(page.size() - 1).operation());
+        fireTableRowsInserted(firstRow, rows.size() - 1);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        var entry = rows.get(rowIndex);
+        var operation = entry.operation();
+        return switch (columnIndex) {
+            case 0 -> entry.categoryName() != null ? entry.categoryName() : "Без категории";
+            case 1 -> operation.type().getLabel();
+            case 2 -> MoneyFormatter.format(operation.amount());
+            case 3 -> DateFormatter.format(operation.date());
+            case 4 -> operation.note();
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package view.components;
+
+import model.PeriodTotal;
+import utils.MoneyFormatter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.UUID;
+
+public class ReportPanel extends JPanel {
+    public static final String LAST_30_DAYS = "Последние 30 дней";
+    public static final String LAST_12_MONTHS = "Последние 12 месяцев";
+    public static final String LAST_5_YEARS = "Последние 5 лет";
+
+    private final UUID userId;
+    private final JComboBox<String> rangeComboBox;
+    private final BarChart chart;
+    private final JLabel totalIncomeLabel;
+    private final JLabel totalExpenseLabel;
+
+    public ReportPanel(UUID userId) {
+        this.userId = userId;
+        setLayout(new BorderLayout());
+
+        rangeComboBox = new JComboBox<>(new String[]{LAST_30_DAYS, LAST_12_MONTHS, LAST_5_YEARS});
+        rangeComboBox.setSelectedItem(LAST_12_MONTHS);
+
+        var rangePanel = new JPanel();
+        rangePanel.add(new JLabel("Период:"));
+        rangePanel.add(rangeComboBox);
+        add(rangePanel, BorderLayout.NORTH);
+
+        chart = new BarChart();
+        add(chart, BorderLayout.CENTER);
+
+        var summaryPanel = new JPanel();
+        totalIncomeLabel = new JLabel("Доход за период: 0.00");
+        totalExpenseLabel = new JLabel("Расходы за период: 0.00");
+        summaryPanel.add(totalIncomeLabel);
+        summaryPanel.add(totalExpenseLabel);
+        add(summaryPanel, BorderLayout.SOUTH);
+    }
+
+    public void setTotals(List<PeriodTotal> totals) {
+        chart.setTotals(totals);
+        long income = 0;
+        long expense = 0;
+        for (var total : totals) {
+            income += total.income();
+            expense += total.expense();
+        }
+        totalIncomeLabel.setText("Доход за период: " + MoneyFormatter.format(income));
+        totalExpenseLabel.setText("Расходы за период: " + MoneyFormatter.format(expense));
+    }
+
+    public JComboBox<String> getRangeComboBox() {
+        return rangeComboBox;
+    }
+
+    public String getSelectedRange() {
+        return (String) rangeComboBox.getSelectedItem();
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,78 @@
+package service;
+
+import model.OperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import storage.AccountStorage;
+import storage.DatabaseTest;
+import storage.OperationFilter;
+import storage.OperationStorage;
+import storage.ShardRouter;
+import storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentOperationTest extends DatabaseTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 25;
+    private static final long INITIAL_DEPOSIT = 1_000_000;
+    private WalletService walletService;
+
+    @BeforeEach
+    void setUp() {
+        walletService = new WalletService(ShardRouter.of(database), new UserStorage(database));
+    }
+
+    @Test
+    void concurrentOperationsOnOneAccountKeepBalanceConsistent() throws Exception {
+        var user = walletService.register("alice", "secret", "secret").value();
+        assertTrue(walletService.addOperation(user.id(), OperationType.INCOME, null, INITIAL_DEPOSIT, null).isSuccess());
+
+        var recorded = new AtomicInteger(1);
+        var rejections = new ConcurrentLinkedQueue<WalletError>();
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<?>>();
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            for (var thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        var type = i % 2 == 0 ? OperationType.EXPENSE : OperationType.INCOME;
+                        var result = walletService.addOperation(user.id(), type, null, 100 + i, null);
+                        if (result.isSuccess()) {
+                            recorded.incrementAndGet();
+                        } else {
+                            rejections.add(result.error());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        for (var error : rejections) {
+            assertTrue(error == WalletError.CONFLICT || error == WalletError.INSUFFICIENT_FUNDS,
+                    "Unexpected result " + error);
+        }
+        assertEquals(1 + THREADS * OPERATIONS_PER_THREAD, recorded.get() + rejections.size());
+
+        var account = new AccountStorage(database).loadByUserId(user.id());
+        var operationStorage = new OperationStorage(database);
+        var totals = operationStorage.sumByType(account.getId(), OperationFilter.all());
+        var expected = totals.getOrDefault(OperationType.INCOME, 0L) - totals.getOrDefault(OperationType.EXPENSE, 0L);
+        assertEquals(expected, account.getBalance());
+        assertEquals(recorded.get(), operationStorage.loadAllByAccountId(account.getId()).size());
+    }
+}
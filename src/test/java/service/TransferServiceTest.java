@@ -0,0 +1,103 @@
+package service;
+
+import model.Account;
+import model.OperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import storage.AccountStorage;
+import storage.DatabaseTest;
+import storage.OperationFilter;
+import storage.OperationStorage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransferServiceTest extends DatabaseTest {
+    private static final int ACCOUNTS = 6;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 50;
+    private static final long INITIAL_BALANCE = 10_000;
+    private AccountStorage accountStorage;
+    private OperationStorage operationStorage;
+    private TransferService transferService;
+    private List<UUID> accountIds;
+
+    @BeforeEach
+    void setUp() {
+        accountStorage = new AccountStorage(database);
+        operationStorage = new OperationStorage(database);
+        transferService = new TransferService(database, accountStorage, operationStorage);
+        accountIds = new ArrayList<>(ACCOUNTS);
+        for (var i = 0; i < ACCOUNTS; i++) {
+            var account = new Account(UUID.randomUUID(), UUID.randomUUID(), 4_000_000_000L + i, INITIAL_BALANCE);
+            accountStorage.save(account);
+            accountIds.add(account.getId());
+        }
+    }
+
+    @Test
+    void transferWithInsufficientFundsChangesNothing() {
+        var result = transferService.transfer(accountIds.get(0), accountIds.get(1), INITIAL_BALANCE + 1, null, Instant.now());
+
+        assertEquals(TransferResult.INSUFFICIENT_FUNDS, result);
+        assertEquals(INITIAL_BALANCE, accountStorage.load(accountIds.get(0)).getBalance());
+        assertEquals(INITIAL_BALANCE, accountStorage.load(accountIds.get(1)).getBalance());
+        assertTrue(operationStorage.loadAllByAccountId(accountIds.get(0)).isEmpty());
+    }
+
+    @Test
+    void concurrentTransfersPreserveTotalBalance() throws Exception {
+        var completed = new AtomicInteger();
+        var failed = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<?>>();
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            for (var thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    var random = ThreadLocalRandom.current();
+                    for (var i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                        var sender = random.nextInt(ACCOUNTS);
+                        var recipient = (sender + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                        var result = transferService.transfer(accountIds.get(sender), accountIds.get(recipient),
+                                random.nextLong(1, INITIAL_BALANCE / 2), null, Instant.now());
+                        if (result == TransferResult.COMPLETED) {
+                            completed.incrementAndGet();
+                        } else if (result == TransferResult.FAILED) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(0, failed.get());
+        assertTrue(completed.get() > 0, "No transfer completed");
+
+        var total = 0L;
+        for (var accountId : accountIds) {
+            var balance = accountStorage.load(accountId).getBalance();
+            var totals = operationStorage.sumByType(accountId, OperationFilter.all());
+            var net = totals.getOrDefault(OperationType.INCOME, 0L) - totals.getOrDefault(OperationType.EXPENSE, 0L);
+            assertTrue(balance >= 0, "Negative balance " + balance + " on " + accountId);
+            assertEquals(INITIAL_BALANCE + net, balance);
+            total += balance;
+        }
+        assertEquals(INITIAL_BALANCE * ACCOUNTS, total);
+    }
+}
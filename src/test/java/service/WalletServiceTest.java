@@ -0,0 +1,148 @@
+package service;
+
+import model.OperationType;
+import model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import storage.DatabaseTest;
+import storage.OperationFilter;
+import storage.ShardRouter;
+import storage.UserStorage;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalletServiceTest extends DatabaseTest {
+    private static final int THREADS = 8;
+    private WalletService walletService;
+
+    @BeforeEach
+    void setUp() {
+        walletService = new WalletService(ShardRouter.of(database), new UserStorage(database));
+    }
+
+    @Test
+    void registerAndLogin() {
+        var registered = walletService.register("alice", "secret", "secret");
+        assertTrue(registered.isSuccess());
+        assertTrue(walletService.getAccount(registered.value().id()).isSuccess());
+
+        assertEquals(WalletError.USERNAME_TAKEN, walletService.register("alice", "other", "other").error());
+        assertEquals(WalletError.PASSWORD_MISMATCH, walletService.register("bob", "secret", "secrets").error());
+        assertEquals(WalletError.INVALID_CREDENTIALS, walletService.login("alice", "wrong").error());
+
+        var loggedIn = walletService.login("alice", "secret");
+        assertTrue(loggedIn.isSuccess());
+        assertEquals(registered.value().id(), loggedIn.value().id());
+    }
+
+    @Test
+    void expenseAboveBalanceIsRejected() {
+        var user = register("alice");
+        deposit(user, 1_000);
+
+        var result = walletService.addOperation(user.id(), OperationType.EXPENSE, null, 1_500, null);
+
+        assertEquals(WalletError.INSUFFICIENT_FUNDS, result.error());
+        assertEquals(1_000, balanceOf(user));
+    }
+
+    @Test
+    void expenseAboveCategoryLimitIsRejected() {
+        var user = register("alice");
+        deposit(user, 10_000);
+        var category = walletService.addCategory(user.id(), "Еда", 500).value();
+
+        assertTrue(walletService.addOperation(user.id(), OperationType.EXPENSE, category.getId(), 400, null).isSuccess());
+        var result = walletService.addOperation(user.id(), OperationType.EXPENSE, category.getId(), 200, null);
+
+        assertEquals(WalletError.CATEGORY_LIMIT_EXCEEDED, result.error());
+        assertEquals(400, (long) walletService.getSpentByCategory(user.id()).value().get(category.getId()));
+        assertEquals(9_600, balanceOf(user));
+    }
+
+    @Test
+    void operationWithAnotherUsersCategoryIsRejected() {
+        var alice = register("alice");
+        var bob = register("bob");
+        var category = walletService.addCategory(bob.id(), "Еда", 500).value();
+
+        var result = walletService.addOperation(alice.id(), OperationType.INCOME, category.getId(), 100, null);
+
+        assertEquals(WalletError.CATEGORY_NOT_FOUND, result.error());
+        assertEquals(0, balanceOf(alice));
+    }
+
+    @Test
+    void transferMovesFundsBetweenUsers() {
+        var alice = register("alice");
+        var bob = register("bob");
+        deposit(alice, 1_000);
+        var bobAccountNumber = walletService.getAccount(bob.id()).value().getAccountNumber();
+
+        assertTrue(walletService.transfer(alice.id(), bobAccountNumber, 300).isSuccess());
+        assertEquals(700, balanceOf(alice));
+        assertEquals(300, balanceOf(bob));
+
+        assertEquals(WalletError.INSUFFICIENT_FUNDS, walletService.transfer(alice.id(), bobAccountNumber, 1_000).error());
+        assertEquals(WalletError.RECIPIENT_NOT_FOUND, walletService.transfer(alice.id(), -1, 100).error());
+        assertEquals(700, balanceOf(alice));
+        assertEquals(300, balanceOf(bob));
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneUsernameCreateOneUser() throws Exception {
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<WalletResult<User>>>();
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            for (var thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return walletService.register("carol", "secret", "secret");
+                }));
+            }
+            start.countDown();
+            var succeeded = 0;
+            for (var future : futures) {
+                var result = future.get();
+                if (result.isSuccess()) {
+                    succeeded++;
+                } else {
+                    assertEquals(WalletError.USERNAME_TAKEN, result.error());
+                }
+            }
+            assertEquals(1, succeeded);
+        }
+        var carol = walletService.login("carol", "secret");
+        assertTrue(carol.isSuccess());
+        assertTrue(walletService.getAccount(carol.value().id()).isSuccess());
+    }
+
+    @Test
+    void queriesForUserWithoutAccountReportAccountNotFound() {
+        var user = new User(UUID.randomUUID(), "dave", "secret");
+        new UserStorage(database).save(user);
+
+        assertEquals(WalletError.ACCOUNT_NOT_FOUND, walletService.getTotals(user.id(), OperationFilter.all()).error());
+        assertEquals(WalletError.ACCOUNT_NOT_FOUND, walletService.getSpentByCategory(user.id()).error());
+        assertTrue(walletService.loadOperationPage(user.id(), OperationFilter.all(), null, 10).isEmpty());
+    }
+
+    private User register(String username) {
+        return walletService.register(username, "secret", "secret").value();
+    }
+
+    private void deposit(User user, long amount) {
+        assertTrue(walletService.addOperation(user.id(), OperationType.INCOME, null, amount, null).isSuccess());
+    }
+
+    private long balanceOf(User user) {
+        return walletService.getAccount(user.id()).value().getBalance();
+    }
+}
@@ -0,0 +1,56 @@
+package storage;
+
+import model.Account;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountStorageTest extends DatabaseTest {
+    private AccountStorage accountStorage;
+
+    @BeforeEach
+    void setUp() {
+        accountStorage = new AccountStorage(database);
+    }
+
+    @Test
+    void tryUpdateRejectsStaleVersion() {
+        var id = saveAccount(1_000);
+        var first = accountStorage.load(id);
+        var second = accountStorage.load(id);
+
+        first.setBalance(900);
+        assertTrue(accountStorage.tryUpdate(first));
+        second.setBalance(800);
+        assertFalse(accountStorage.tryUpdate(second));
+
+        var stored = accountStorage.load(id);
+        assertEquals(900, stored.getBalance());
+        assertEquals(1, stored.getVersion());
+    }
+
+    @Test
+    void updateThrowsOnStaleVersion() {
+        var id = saveAccount(1_000);
+        var first = accountStorage.load(id);
+        var second = accountStorage.load(id);
+
+        first.setBalance(900);
+        accountStorage.update(first);
+        second.setBalance(800);
+        assertThrows(ConcurrentUpdateException.class, () -> accountStorage.update(second));
+        assertEquals(900, accountStorage.load(id).getBalance());
+    }
+
+    private UUID saveAccount(long balance) {
+        var account = new Account(UUID.randomUUID(), UUID.randomUUID(), 4_000_000_000L, balance);
+        accountStorage.save(account);
+        return account.getId();
+    }
+}
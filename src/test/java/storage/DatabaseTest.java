@@ -0,0 +1,25 @@
+package storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import utils.DatabaseConnection;
+
+import java.nio.file.Path;
+
+public abstract class DatabaseTest {
+    @TempDir
+    protected Path directory;
+    protected DatabaseConnection database;
+
+    @BeforeEach
+    protected void openDatabase() {
+        database = DatabaseConnection.getInstance("jdbc:sqlite:" + directory.resolve("wallet.db"));
+        new SchemaMigrator(database).migrate();
+    }
+
+    @AfterEach
+    protected void closeDatabase() {
+        database.close();
+    }
+}